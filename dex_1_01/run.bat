@@ -36,7 +36,7 @@ if %ERRORLEVEL% neq 0 (
     echo.
     echo Failed to run the application. 
     echo Make sure JavaFX runtime is installed or use:
-    echo java --module-path "path\to\javafx\lib" --add-modules javafx.controls,javafx.fxml -cp target\classes com.spaceninja.SpaceNinjaApplication
+    echo java --module-path "path\to\javafx\lib" --add-modules javafx.controls,javafx.fxml,javafx.media -cp target\classes com.spaceninja.SpaceNinjaApplication
 )
 
 pause
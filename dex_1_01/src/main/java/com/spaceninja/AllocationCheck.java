@@ -0,0 +1,106 @@
+package com.spaceninja;
+
+import java.util.List;
+
+/**
+ * Plays a scripted session straight on a GameSimulation and fails if any hot path is over
+ * its allocation budget. The monitored paths all run on the simulation thread, so no JavaFX
+ * toolkit is started: the check runs on a plain class path, headless, without any native
+ * GUI libraries. Ticks run back to back and taps are scheduled in ticks, so the session
+ * covers the same game time however fast the machine is.
+ */
+public class AllocationCheck {
+
+    public static final int DEFAULT_TICKS = 20000;
+
+    private static final int TAP_EVERY_TICKS = 20;    // About three taps a second, like a busy player
+    private static final int MIN_MEASURED_CALLS = 20; // Per path, after its warm-up
+    private static final int TICKS_PER_LANDING =
+        (int) ((GameSimulation.JUMP_NANOS + GameSimulation.TICK_NANOS - 1) / GameSimulation.TICK_NANOS);
+
+    // Shortest session in which every path gets past its warm-up and is measured
+    public static final int MIN_TICKS = minTicks();
+
+    private final int ticks;
+    private final AllocationMonitor monitor = new AllocationMonitor(true);
+
+    public AllocationCheck(int ticks) {
+        if (ticks < MIN_TICKS) {
+            throw new IllegalArgumentException("Allocation check needs at least " + MIN_TICKS + " ticks: " + ticks);
+        }
+        this.ticks = ticks;
+    }
+
+    private static int minTicks() {
+        int min = 0;
+        for (AllocationMonitor.Section section : AllocationMonitor.Section.values()) {
+            min = Math.max(min, (section.getWarmupCalls() + MIN_MEASURED_CALLS) * ticksPerCall(section));
+        }
+        return min;
+    }
+
+    private static int ticksPerCall(AllocationMonitor.Section section) {
+        switch (section) {
+            case SWITCH_COLOR:
+                return TAP_EVERY_TICKS;
+            case LANDING:
+                return TICKS_PER_LANDING;
+            default:
+                return 1;
+        }
+    }
+
+    public boolean isSupported() {
+        return monitor.isEnabled();
+    }
+
+    // Runs the session on the calling thread, which stands in for the simulation thread
+    public void run() {
+        TrackGenerator trackGenerator = new TrackGenerator();
+        trackGenerator.start();
+        GameSimulation simulation = new GameSimulation(trackGenerator, new AudioService(false), monitor);
+        RenderSnapshot snapshot = new RenderSnapshot(simulation.getMaxSticks());
+        try {
+            simulation.reset(1);
+            for (int tick = 1; tick <= ticks; tick++) {
+                if (tick % TAP_EVERY_TICKS == 0) {
+                    simulation.requestSwitch();
+                }
+                simulation.step();
+                simulation.writeSnapshot(snapshot);
+            }
+        } finally {
+            trackGenerator.shutdown();
+        }
+    }
+
+    public boolean isPassed() {
+        return monitor.isWithinBudget();
+    }
+
+    public String report() {
+        return monitor.report();
+    }
+
+    // Exit status 0 when every path is within budget, 1 when one is over, 2 when the JVM
+    // can't measure per-thread allocation
+    public static int runCheck(int ticks) {
+        AllocationCheck check = new AllocationCheck(ticks);
+        if (!check.isSupported()) {
+            System.err.println("Allocation check: thread allocation tracking is not supported by this JVM");
+            return 2;
+        }
+        check.run();
+        System.out.print(check.report());
+        boolean passed = check.isPassed();
+        System.out.println(passed ? "Allocation check passed" : "Allocation check FAILED");
+        return passed ? 0 : 1;
+    }
+
+    // Entry point for class path runs, where SpaceNinjaApplication can't start without JavaFX
+    // on the module path. Takes the same --alloc-check=N option.
+    public static void main(String[] args) {
+        LaunchOptions options = LaunchOptions.parse(List.of(args));
+        System.exit(runCheck(options.isAllocationCheck() ? options.getAllocationCheckTicks() : DEFAULT_TICKS));
+    }
+}
@@ -0,0 +1,147 @@
+package com.spaceninja;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes allocated by the calling thread inside the game's hot paths
+ * and compares the steady-state average of each path against a byte budget.
+ *
+ * The hot paths are meant to allocate nothing, so every budget defaults to a small noise
+ * floor rather than a real allowance. Budgets can be overridden with system properties, e.g.
+ * -Dspaceninja.alloc.budget.updateGame=0
+ */
+public class AllocationMonitor {
+
+    // Warm-up is per path: a landing happens about once a second, a tick sixty times
+    public enum Section {
+        UPDATE_GAME("updateGame", 600),
+        SWITCH_COLOR("switchColor", 30),
+        LANDING("landing", 10);
+
+        private final String label;
+        private final int warmupCalls;
+
+        Section(String label, int warmupCalls) {
+            this.label = label;
+            this.warmupCalls = warmupCalls;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public int getWarmupCalls() {
+            return warmupCalls;
+        }
+    }
+
+    private static final Section[] SECTIONS = Section.values();
+    // Bytes per call. Covers the odd one-off (a deoptimization, a lazily built table) averaged
+    // over a run; an allocation on every call, even a single small object, still fails.
+    private static final long DEFAULT_BUDGET = 64;
+
+    private final com.sun.management.ThreadMXBean threadBean;
+    private final boolean enabled;
+
+    // Per-section counters, indexed by Section.ordinal()
+    private final long[] budgets = new long[SECTIONS.length];
+    private final long[] startBytes = new long[SECTIONS.length];
+    private final long[] calls = new long[SECTIONS.length];
+    private final long[] measuredCalls = new long[SECTIONS.length];
+    private final long[] measuredBytes = new long[SECTIONS.length];
+    private final long[] maxBytes = new long[SECTIONS.length];
+    private long probeOverhead;
+
+    public AllocationMonitor(boolean enabled) {
+        com.sun.management.ThreadMXBean bean = null;
+        if (enabled && ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+            bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            if (bean.isThreadAllocatedMemorySupported()) {
+                bean.setThreadAllocatedMemoryEnabled(true);
+            } else {
+                bean = null;
+            }
+        }
+        this.threadBean = bean;
+        this.enabled = bean != null;
+
+        for (Section section : SECTIONS) {
+            budgets[section.ordinal()] = Long.getLong("spaceninja.alloc.budget." + section.label,
+                                                      DEFAULT_BUDGET);
+        }
+
+        if (this.enabled) {
+            calibrate();
+        }
+    }
+
+    private void calibrate() {
+        // The probe itself should not allocate, but measure it so the reports stay honest
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < 1000; i++) {
+            long before = threadBean.getCurrentThreadAllocatedBytes();
+            long after = threadBean.getCurrentThreadAllocatedBytes();
+            min = Math.min(min, after - before);
+        }
+        probeOverhead = Math.max(0, min);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void begin(Section section) {
+        if (!enabled) return;
+        startBytes[section.ordinal()] = threadBean.getCurrentThreadAllocatedBytes();
+    }
+
+    public void end(Section section) {
+        if (!enabled) return;
+        int i = section.ordinal();
+        long allocated = threadBean.getCurrentThreadAllocatedBytes() - startBytes[i] - probeOverhead;
+
+        calls[i]++;
+        if (calls[i] <= section.warmupCalls) return; // Let class loading and JIT settle first
+
+        measuredCalls[i]++;
+        measuredBytes[i] += Math.max(0, allocated);
+        maxBytes[i] = Math.max(maxBytes[i], allocated);
+    }
+
+    public long getCalls(Section section) {
+        return calls[section.ordinal()];
+    }
+
+    public long getBudget(Section section) {
+        return budgets[section.ordinal()];
+    }
+
+    public double getAverageBytes(Section section) {
+        int i = section.ordinal();
+        return measuredCalls[i] == 0 ? 0 : (double) measuredBytes[i] / measuredCalls[i];
+    }
+
+    // A path that was never measured fails too, rather than passing with nothing to show
+    public boolean isWithinBudget(Section section) {
+        return measuredCalls[section.ordinal()] > 0 && getAverageBytes(section) <= budgets[section.ordinal()];
+    }
+
+    public boolean isWithinBudget() {
+        for (Section section : SECTIONS) {
+            if (!isWithinBudget(section)) return false;
+        }
+        return true;
+    }
+
+    public String report() {
+        StringBuilder sb = new StringBuilder("Allocation report (bytes per call, after warm-up)\n");
+        for (Section section : SECTIONS) {
+            int i = section.ordinal();
+            String verdict = measuredCalls[i] == 0 ? "NO SAMPLES" : isWithinBudget(section) ? "OK" : "OVER BUDGET";
+            sb.append(String.format("  %-12s warmup=%-4d calls=%-8d avg=%-10.1f max=%-8d budget=%-6d %s%n",
+                section.label, section.warmupCalls, measuredCalls[i], getAverageBytes(section), maxBytes[i],
+                budgets[i], verdict));
+        }
+        return sb.toString();
+    }
+}
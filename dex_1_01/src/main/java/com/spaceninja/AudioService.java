@@ -0,0 +1,189 @@
+package com.spaceninja;
+
+import java.net.URL;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioSystem;
+
+import javafx.scene.media.AudioClip;
+
+/**
+ * Plays the game's sound effects from clips decoded at load time.
+ *
+ * The game tick only writes a sound id and timestamp into a preallocated ring; a dedicated
+ * audio thread drains it and starts the clips, so the game loop never blocks or allocates on
+ * audio. Voices are limited per sound and overall so rapid input cannot stack up playbacks.
+ */
+public class AudioService {
+
+    public enum Sound {
+        JUMP("/sounds/jump.wav", 0.35, 1),
+        SWITCH_COLOR("/sounds/switch.wav", 0.5, 2),
+        SCORE("/sounds/score.wav", 0.6, 1),
+        GAME_OVER("/sounds/gameover.wav", 0.8, 1);
+
+        private final String resource;
+        private final double volume;
+        private final int maxVoices;
+
+        Sound(String resource, double volume, int maxVoices) {
+            this.resource = resource;
+            this.volume = volume;
+            this.maxVoices = maxVoices;
+        }
+    }
+
+    private static final Sound[] SOUNDS = Sound.values();
+    private static final int MAX_VOICES = 4;
+    private static final int QUEUE_SIZE = 64; // Power of two
+    private static final long IDLE_PARK_NANOS = 5_000_000L;
+
+    private final AudioClip[] clips = new AudioClip[SOUNDS.length];
+    private final long[] clipNanos = new long[SOUNDS.length];
+    private final boolean enabled;
+
+    // Single-producer (game tick) / single-consumer (audio thread) request ring
+    private final int[] queuedSounds = new int[QUEUE_SIZE];
+    private final long[] queuedNanos = new long[QUEUE_SIZE];
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private long droppedRequests = 0; // Written by the game tick only
+
+    // Voice bookkeeping, touched by the audio thread only. The counters are read by report()
+    // once stop() has joined the thread.
+    private final int[] voiceSounds = new int[MAX_VOICES];
+    private final long[] voiceEnds = new long[MAX_VOICES];
+    private long played = 0;
+    private long voiceLimited = 0;
+    private long latencyTotal = 0;
+    private long latencyMax = 0;
+
+    private volatile boolean running;
+    private Thread audioThread;
+
+    public AudioService(boolean enabled) {
+        boolean loaded = enabled;
+        if (enabled) {
+            try {
+                for (Sound sound : SOUNDS) {
+                    URL url = getClass().getResource(sound.resource);
+                    if (url == null) {
+                        throw new IllegalStateException("Missing sound " + sound.resource);
+                    }
+                    AudioClip clip = new AudioClip(url.toExternalForm());
+                    clip.setVolume(sound.volume);
+                    clips[sound.ordinal()] = clip;
+                    clipNanos[sound.ordinal()] = clipLengthNanos(url);
+                }
+            } catch (Exception e) {
+                // No audio device or media support, play silently
+                System.err.println("Audio disabled: " + e.getMessage());
+                loaded = false;
+            }
+        }
+        this.enabled = loaded;
+    }
+
+    private static long clipLengthNanos(URL url) throws Exception {
+        AudioFileFormat format = AudioSystem.getAudioFileFormat(url);
+        return (long) (format.getFrameLength() / format.getFormat().getFrameRate() * 1_000_000_000L);
+    }
+
+    public void start() {
+        if (!enabled || running) return;
+        running = true;
+        audioThread = new Thread(this::runAudioThread, "audio");
+        audioThread.setDaemon(true);
+        audioThread.setPriority(Thread.MAX_PRIORITY);
+        audioThread.start();
+    }
+
+    public void stop() {
+        running = false;
+        if (audioThread != null) {
+            LockSupport.unpark(audioThread);
+            try {
+                audioThread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Called from the game tick. Never blocks; drops the request if the ring is full.
+    public void trigger(Sound sound) {
+        if (!enabled) return;
+
+        long t = tail.get();
+        if (t - head.get() >= QUEUE_SIZE) {
+            droppedRequests++;
+            return;
+        }
+        int slot = (int) (t & (QUEUE_SIZE - 1));
+        queuedSounds[slot] = sound.ordinal();
+        queuedNanos[slot] = System.nanoTime();
+        tail.lazySet(t + 1);
+        LockSupport.unpark(audioThread);
+    }
+
+    private void runAudioThread() {
+        while (running) {
+            long h = head.get();
+            if (h == tail.get()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            int slot = (int) (h & (QUEUE_SIZE - 1));
+            int sound = queuedSounds[slot];
+            long requestedAt = queuedNanos[slot];
+            head.lazySet(h + 1);
+
+            play(sound, requestedAt);
+        }
+    }
+
+    private void play(int sound, long requestedAt) {
+        long now = System.nanoTime();
+
+        // Find a free voice, and count how many this sound already holds
+        int free = -1;
+        int sameSound = 0;
+        for (int i = 0; i < MAX_VOICES; i++) {
+            if (voiceEnds[i] <= now) {
+                if (free < 0) free = i;
+            } else if (voiceSounds[i] == sound) {
+                sameSound++;
+            }
+        }
+        if (free < 0 || sameSound >= SOUNDS[sound].maxVoices) {
+            voiceLimited++;
+            return;
+        }
+
+        clips[sound].play();
+        voiceSounds[free] = sound;
+        voiceEnds[free] = now + clipNanos[sound];
+
+        // Measures up to handing the clip to the media engine; its own output buffering comes
+        // on top and isn't visible from here
+        long latency = System.nanoTime() - requestedAt;
+        played++;
+        latencyTotal += latency;
+        latencyMax = Math.max(latencyMax, latency);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // Call after stop(), and after the game tick has stopped triggering sounds
+    public String report() {
+        if (!enabled) return "Audio: disabled";
+        if (audioThread != null && audioThread.isAlive()) return "Audio: still running, no report";
+        return String.format("Audio: %d played, %d voice-limited, %d dropped, dispatch latency avg %.2f ms, max %.2f ms",
+            played, voiceLimited, droppedRequests,
+            played == 0 ? 0 : latencyTotal / (double) played / 1_000_000, latencyMax / 1_000_000.0);
+    }
+}
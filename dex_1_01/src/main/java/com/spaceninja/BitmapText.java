@@ -0,0 +1,102 @@
+package com.spaceninja;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.KeyValue;
+import javafx.animation.Timeline;
+import javafx.scene.Group;
+import javafx.scene.image.ImageView;
+import javafx.scene.transform.Scale;
+import javafx.util.Duration;
+
+/**
+ * A HUD number drawn from a GlyphAtlas of digits, centered on the node's origin. All image
+ * views are created up front; setNumber() only moves viewports and positions, so updating the
+ * HUD allocates nothing and skips CSS, text layout and glyph rasterization.
+ */
+public class BitmapText {
+
+    private final GlyphAtlas atlas;
+    private final ViewSync viewSync;
+    private final Group node = new Group();
+    private final ImageView[] slots;
+    private final StringBuilder buffer = new StringBuilder(16);
+
+    // Pulse is a scale transform around the text center, animated by one reusable timeline
+    private final Scale pulseScale = new Scale(1, 1);
+    private final Timeline pulse;
+
+    private int number = Integer.MIN_VALUE;
+
+    public BitmapText(GlyphAtlas atlas, int maxLength, GameClock clock, ViewSync viewSync) {
+        this.atlas = atlas;
+        this.viewSync = viewSync;
+        slots = new ImageView[maxLength];
+        for (int i = 0; i < maxLength; i++) {
+            ImageView slot = new ImageView(atlas.getImage());
+            slot.setFitHeight(atlas.getLineHeight());
+            slot.setSmooth(true);
+            slot.setVisible(false);
+            slots[i] = slot;
+            node.getChildren().add(slot);
+        }
+        pulseScale.setPivotY(atlas.getLineHeight() / 2);
+        node.getTransforms().add(pulseScale);
+
+        pulse = new Timeline(
+            new KeyFrame(Duration.ZERO, new KeyValue(pulseScale.xProperty(), 1.0)),
+            new KeyFrame(Duration.millis(100), new KeyValue(pulseScale.xProperty(), 1.3)),
+            new KeyFrame(Duration.millis(200), new KeyValue(pulseScale.xProperty(), 1.0))
+        );
+        clock.register(pulse);
+    }
+
+    public Group getNode() {
+        return node;
+    }
+
+    public void setNumber(int value) {
+        if (value == number) return;
+        number = value;
+        // append(int) writes into the existing buffer, so this doesn't allocate
+        buffer.setLength(0);
+        buffer.append(value);
+        show(buffer);
+    }
+
+    public void pulse() {
+        pulse.playFromStart();
+    }
+
+    private void show(CharSequence text) {
+        int length = Math.min(text.length(), slots.length);
+        double width = 0;
+        for (int i = 0; i < length; i++) {
+            width += advanceOf(text.charAt(i));
+        }
+        double x = -width / 2;
+        for (int i = 0; i < length; i++) {
+            x = place(slots[i], text.charAt(i), x);
+        }
+        for (int i = length; i < slots.length; i++) {
+            viewSync.visible(slots[i], false);
+        }
+    }
+
+    private double place(ImageView slot, char c, double x) {
+        int index = atlas.indexOf(c);
+        if (index < 0) {
+            viewSync.visible(slot, false);
+            return x + atlas.getSpaceAdvance();
+        }
+        viewSync.viewport(slot, atlas.getViewport(index));
+        viewSync.fitWidth(slot, atlas.getAdvance(index));
+        viewSync.layoutX(slot, x);
+        viewSync.visible(slot, true);
+        return x + atlas.getAdvance(index);
+    }
+
+    private double advanceOf(char c) {
+        int index = atlas.indexOf(c);
+        return index < 0 ? atlas.getSpaceAdvance() : atlas.getAdvance(index);
+    }
+}
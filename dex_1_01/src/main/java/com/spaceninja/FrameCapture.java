@@ -0,0 +1,180 @@
+package com.spaceninja;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.SnapshotResult;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.paint.Color;
+import javafx.util.Callback;
+
+import javax.imageio.ImageIO;
+
+/**
+ * Records the game as a PNG sequence. The FX thread only asks for a snapshot into a pooled
+ * image; JavaFX renders it as part of the next pulse instead of forcing an extra render pass
+ * there and then. Reading the pixels, encoding and disk writes run on a small worker pool.
+ * When every buffer is still in flight the frame is dropped and counted instead of waiting,
+ * and drops are reported while recording, at most once a second.
+ */
+public class FrameCapture {
+
+    private static final int BUFFER_COUNT = 6;
+    private static final long DROP_REPORT_NANOS = 1_000_000_000L;
+
+    private final Node target;
+    private final Path directory;
+    private final int frameInterval;
+    private final int width;
+    private final int height;
+
+    private final ArrayBlockingQueue<FrameBuffer> freeBuffers = new ArrayBlockingQueue<>(BUFFER_COUNT);
+    private final ExecutorService encoders;
+    private final ThreadLocal<BufferedImage> encodeImage;
+    private final SnapshotParameters snapshotParameters = new SnapshotParameters();
+    private final AnimationTimer timer;
+
+    private long pulses = 0;
+    private long frameNumber = 0;
+    private long captured = 0;
+    private long dropped = 0;
+    private long reportedDropped = 0;
+    private long lastDropReportNanos;
+    private boolean stopped = false;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    // A pooled snapshot image, with its snapshot callback and encode task built once
+    private class FrameBuffer {
+        final WritableImage image = new WritableImage(width, height);
+        final Callback<SnapshotResult, Void> onSnapshot = result -> {
+            snapshotTaken(this);
+            return null;
+        };
+        final Runnable encodeTask = () -> encode(this);
+        long frameNumber;
+    }
+
+    public FrameCapture(Node target, Path directory, int frameInterval, int width, int height, int workers) {
+        this.target = target;
+        this.directory = directory;
+        this.frameInterval = Math.max(1, frameInterval);
+        this.width = width;
+        this.height = height;
+
+        for (int i = 0; i < BUFFER_COUNT; i++) {
+            freeBuffers.add(new FrameBuffer());
+        }
+
+        // Queue can never hold more than the buffers in flight, so it is bounded by the pool
+        encoders = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(BUFFER_COUNT), r -> {
+                Thread thread = new Thread(r, "frame-encoder");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+                return thread;
+            });
+        encodeImage = ThreadLocal.withInitial(() -> new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB));
+
+        snapshotParameters.setFill(Color.BLACK);
+        snapshotParameters.setViewport(new Rectangle2D(0, 0, width, height));
+
+        timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (pulses++ % FrameCapture.this.frameInterval == 0) {
+                    captureFrame();
+                }
+                reportDrops(now);
+            }
+        };
+    }
+
+    public void start() throws IOException {
+        Files.createDirectories(directory);
+        timer.start();
+    }
+
+    private void captureFrame() {
+        long frame = frameNumber++;
+
+        FrameBuffer buffer = freeBuffers.poll();
+        if (buffer == null) {
+            // Encoders are behind, drop rather than stall the game
+            dropped++;
+            return;
+        }
+
+        buffer.frameNumber = frame;
+        target.snapshot(buffer.onSnapshot, snapshotParameters, buffer.image);
+    }
+
+    // FX thread, during the pulse that rendered the snapshot
+    private void snapshotTaken(FrameBuffer buffer) {
+        if (stopped) {
+            freeBuffers.offer(buffer);
+            return;
+        }
+        captured++;
+        encoders.execute(buffer.encodeTask);
+    }
+
+    private void reportDrops(long now) {
+        if (dropped == reportedDropped || now - lastDropReportNanos < DROP_REPORT_NANOS) return;
+        System.err.println("Frame capture: " + (dropped - reportedDropped) + " frames dropped, "
+            + dropped + " so far (encoders behind)");
+        reportedDropped = dropped;
+        lastDropReportNanos = now;
+    }
+
+    private void encode(FrameBuffer buffer) {
+        try {
+            BufferedImage image = encodeImage.get();
+            int[] data = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            buffer.image.getPixelReader().getPixels(0, 0, width, height,
+                PixelFormat.getIntArgbInstance(), data, 0, width);
+
+            Path file = directory.resolve(String.format("frame_%06d.png", buffer.frameNumber));
+            ImageIO.write(image, "png", file.toFile());
+            written.incrementAndGet();
+        } catch (IOException e) {
+            failed.incrementAndGet();
+        } finally {
+            freeBuffers.offer(buffer);
+        }
+    }
+
+    public void stop() {
+        timer.stop();
+        stopped = true;
+        encoders.shutdown();
+        try {
+            encoders.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public long getDroppedFrames() {
+        return dropped;
+    }
+
+    public String report() {
+        return String.format("Frame capture: %d frames, %d captured, %d written, %d dropped, %d failed -> %s",
+            frameNumber, captured, written.get(), dropped, failed.get(), directory.toAbsolutePath());
+    }
+}
@@ -0,0 +1,107 @@
+package com.spaceninja;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.animation.Animation;
+
+/**
+ * The single time scale for the whole game, like GSAP's timeScale() in the web version.
+ *
+ * The effective scale is the difficulty ramp (from the simulation) times the speed multiplier
+ * (QA fast-forward or --time-scale). The simulation thread paces its ticks by it, and every
+ * FX animation registered here, from particles and background to short tweens, runs at
+ * the same rate, so nothing drifts apart as the game speeds up.
+ */
+public class GameClock {
+
+    public static final double FAST_FORWARD = 8.0;
+
+    private final double baseMultiplier;
+    private volatile double speedMultiplier;
+    private boolean fastForward = false;
+
+    // FX thread only
+    private double difficultyScale = 1.0;
+    private double appliedScale = 1.0;
+    private final List<Animation> animations = new ArrayList<>();
+    private final List<Animation> tweens = new ArrayList<>(); // Started by play(), may have finished
+
+    public GameClock(double baseMultiplier) {
+        this.baseMultiplier = baseMultiplier;
+        this.speedMultiplier = baseMultiplier;
+        this.appliedScale = baseMultiplier;
+    }
+
+    // Read by the simulation thread
+    public double getSpeedMultiplier() {
+        return speedMultiplier;
+    }
+
+    public double getTimeScale() {
+        return difficultyScale * speedMultiplier;
+    }
+
+    public boolean isFastForward() {
+        return fastForward;
+    }
+
+    public void setFastForward(boolean fastForward) {
+        this.fastForward = fastForward;
+        speedMultiplier = baseMultiplier * (fastForward ? FAST_FORWARD : 1.0);
+        applyRates();
+    }
+
+    // Called by the renderer with the ramp from the latest snapshot
+    public void setDifficultyScale(double difficultyScale) {
+        if (difficultyScale != this.difficultyScale) {
+            this.difficultyScale = difficultyScale;
+            applyRates();
+        }
+    }
+
+    // Long-running animations follow every later change of scale. Their views live as long
+    // as the game (sticks are pooled, never discarded), so there is no unregistering.
+    public void register(Animation animation) {
+        animations.add(animation);
+        animation.setRate(appliedScale);
+    }
+
+    // Short tweens (re)start from the beginning at the current scale
+    public void play(Animation animation) {
+        animation.setRate(appliedScale);
+        animation.playFromStart();
+        if (!tweens.contains(animation)) {
+            tweens.add(animation);
+        }
+        if (tweens.size() > 64) {
+            pruneTweens();
+        }
+    }
+
+    // Animations currently playing, registered or not. Used by the soak test to spot leaks.
+    public int getRunningCount() {
+        pruneTweens();
+        int running = 0;
+        for (Animation animation : animations) {
+            if (animation.getStatus() == Animation.Status.RUNNING) running++;
+        }
+        for (Animation animation : tweens) {
+            if (animation.getStatus() == Animation.Status.RUNNING) running++;
+        }
+        return running;
+    }
+
+    private void pruneTweens() {
+        tweens.removeIf(animation -> animation.getStatus() == Animation.Status.STOPPED);
+    }
+
+    private void applyRates() {
+        double scale = getTimeScale();
+        if (scale == appliedScale) return;
+        appliedScale = scale;
+        for (Animation animation : animations) {
+            animation.setRate(scale);
+        }
+    }
+}
@@ -3,8 +3,8 @@ package com.spaceninja;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
+import javafx.animation.AnimationTimer;
 import javafx.animation.KeyFrame;
 import javafx.animation.KeyValue;
 import javafx.animation.RotateTransition;
@@ -36,38 +36,101 @@ public class GameController {
         Color.web("#009c46"), // Green  
         Color.web("#0079c9")  // Blue
     };
-    private static final double STICK_WIDTH = 90; // Match original design
     private static final double NINJA_SIZE = 64;
-    private static final double SCENE_WIDTH = 1200;
-    private static final double SCENE_HEIGHT = 800;
+    private static final String[] WAVE_IMAGES = {
+        "/images/wave1.svg", "/images/wave2.svg", "/images/wave3.svg", "/images/wave4.svg"
+    };
+    private static final double[] WAVE_OPACITIES = {0.8, 0.6, 0.4, 0.3};
+    private static final double[] WAVE_DURATIONS = {15, 18, 20, 22};
+    static final double SCENE_WIDTH = 1200;
+    static final double SCENE_HEIGHT = 800;
     
-    // Game state
+    // Game state, as last shown from the simulation
     private int score = 0;
     private boolean isGameRunning = false;
     private int currentColorIndex = 0;
+    private long shownLandings = 0;
+    private int session = 0;
     private Random random = new Random();
-    private Timeline gameLoop;
-    private Timeline ninjaAnimation;
+    private AnimationTimer gameLoop;
+    
+    // The game rules run on their own thread and hand over snapshots to render
+    private final SimulationThread simulationThread;
+    private final TrackGenerator trackGenerator = new TrackGenerator();
+    private final TimingStats renderStats = new TimingStats("Render");
+    
+    // Restarting resets the existing views in place; this measures how long until the new
+    // game is on screen
+    private final TimingStats restartStats = new TimingStats("Restart to first frame");
+    private long restartNanos;
+    private boolean firstFramePending = false;
+    
+    // One time scale for the simulation and every animation on screen
+    private final GameClock clock;
+    
+    // Frames are drawn between the last two simulation ticks, so motion stays smooth on
+    // displays faster than the 62.5 Hz tick rate
+    private boolean interpolationEnabled = true;
+    private final MotionStats motionStats = new MotionStats("Scroll motion");
+    private long lastRenderNanos;
+    private long lastFrontId;
+    private double lastFrontX;
     
     // UI Components
     private StackPane root;
     private Group gameScene;
-    private Group sticksContainer;
     private Circle ninja;
     private Group ninjaContainer;
-    private Label scoreLabel;
+    private GlyphAtlas scoreGlyphs;
+    private BitmapText scoreText;
     private VBox startScreen;
     private VBox gameOverScreen;
     private Text hintText;
     
-    // Game objects
-    private List<Stick> sticks = new ArrayList<>();
-    private ConcurrentLinkedQueue<Stick> sticksToRemove = new ConcurrentLinkedQueue<>();
-    private double stickSpeed = 2.0;
-    private final double ninjaY = SCENE_HEIGHT - 200;
+    // Tweens are built once and replayed
+    private Timeline hintTimeline;
+    private Timeline ninjaColorEffect;
+    
+    // Stick views per lane, the game's own lane first. Extra lanes only exist in stress mode
+    // and mirror the same simulation with their own ninja.
+    private static final double LANE_SPACING = 90;
+    private final StressConfig stressConfig;
+    private final List<TrackView> tracks = new ArrayList<>();
+    private final List<Group> laneNinjas = new ArrayList<>();
+    
+    // Per-frame view state is only written when it changes
+    private final ViewSync viewSync = new ViewSync();
+    private Color shownNinjaColor;
+    
+    // Ghost run: the best saved run replayed next to the live one, off unless enabled
+    private GhostRecorder ghostRecorder;
+    private GhostPlayer ghostPlayer;
+    private Group ghostNinja;
+    private BitmapText ghostScoreText;
+    private final double ninjaY = GameSimulation.NINJA_Y;
+    
+    private final AudioService audioService;
+    
+    // Diagnostics
+    private final TelemetryWriter telemetryWriter;
+    private final SessionTelemetry sessionTelemetry;
     
     public GameController() {
+        this(new GameClock(1.0), StressConfig.defaults(), new AllocationMonitor(false), new AudioService(false), TelemetryWriter.disabled());
+    }
+    
+    public GameController(GameClock clock, StressConfig stressConfig, AllocationMonitor allocationMonitor,
+                          AudioService audioService, TelemetryWriter telemetryWriter) {
+        this.clock = clock;
+        this.stressConfig = stressConfig;
+        this.audioService = audioService;
+        this.telemetryWriter = telemetryWriter;
+        this.sessionTelemetry = new SessionTelemetry(telemetryWriter);
+        this.simulationThread = new SimulationThread(
+            new GameSimulation(stressConfig.getSticks(), trackGenerator, audioService, allocationMonitor), clock);
         initializeUI();
+        trackGenerator.start();
+        simulationThread.start();
     }
     
     private void initializeUI() {
@@ -90,7 +153,7 @@ public class GameController {
         root.setStyle("-fx-background-color: linear-gradient(to bottom, #1a1a2e 0%, #16213e 50%, #b99bb7 100%);");
         
         // Add animated stars
-        for (int i = 0; i < 100; i++) {
+        for (int i = 0; i < stressConfig.getStars(); i++) {
             Circle star = new Circle(random.nextDouble() * 2 + 1, Color.WHITE);
             star.setLayoutX(random.nextDouble() * SCENE_WIDTH);
             star.setLayoutY(random.nextDouble() * SCENE_HEIGHT * 0.7); // Keep stars in upper area
@@ -104,6 +167,7 @@ public class GameController {
             );
             starTwinkle.setAutoReverse(true);
             starTwinkle.setCycleCount(Timeline.INDEFINITE);
+            clock.register(starTwinkle);
             starTwinkle.play();
             
             background.getChildren().add(star);
@@ -130,6 +194,7 @@ public class GameController {
             RotateTransition sunRotation = new RotateTransition(Duration.seconds(100), sun);
             sunRotation.setByAngle(360);
             sunRotation.setCycleCount(Timeline.INDEFINITE);
+            clock.register(sunRotation);
             sunRotation.play();
             
             background.getChildren().add(sun);
@@ -155,6 +220,7 @@ public class GameController {
             RotateTransition earthRotation = new RotateTransition(Duration.seconds(100), earth);
             earthRotation.setByAngle(360);
             earthRotation.setCycleCount(Timeline.INDEFINITE);
+            clock.register(earthRotation);
             earthRotation.play();
             
             background.getChildren().add(earth);
@@ -176,20 +242,31 @@ public class GameController {
     private void createGameScene() {
         gameScene = new Group();
         
-        // Create sticks container
-        sticksContainer = new Group();
-        gameScene.getChildren().add(sticksContainer);
+        // Create sticks container and ninja. Extra lanes sit behind, stepped up the screen.
+        for (int lane = stressConfig.getLanes() - 1; lane >= 1; lane--) {
+            TrackView track = new TrackView(clock, viewSync, stressConfig.getParticlesPerStick());
+            Group laneNinja = createNinja();
+            Group laneGroup = new Group(track.getNode(), laneNinja);
+            laneGroup.setTranslateY(-lane * LANE_SPACING);
+            laneGroup.setOpacity(0.6);
+            tracks.add(track);
+            laneNinjas.add(laneNinja);
+            gameScene.getChildren().add(laneGroup);
+        }
+        TrackView mainTrack = new TrackView(clock, viewSync, stressConfig.getParticlesPerStick());
+        tracks.add(0, mainTrack);
+        gameScene.getChildren().add(mainTrack.getNode());
         
-        // Create ninja
-        createNinja();
+        ninjaContainer = createNinja();
+        gameScene.getChildren().add(ninjaContainer);
         
-        // Create score label
-        scoreLabel = new Label("0");
-        scoreLabel.setTextFill(Color.WHITE);
-        scoreLabel.setFont(Font.font("Arial", FontWeight.BOLD, 48));
-        scoreLabel.setLayoutX(SCENE_WIDTH / 2 - 25);
-        scoreLabel.setLayoutY(50);
-        gameScene.getChildren().add(scoreLabel);
+        // Create score display, drawn from pre-rasterized digits
+        scoreGlyphs = new GlyphAtlas(Font.font("Arial", FontWeight.BOLD, 48), Color.WHITE, "0123456789");
+        scoreText = new BitmapText(scoreGlyphs, 6, clock, viewSync);
+        scoreText.setNumber(0);
+        scoreText.getNode().setLayoutX(SCENE_WIDTH / 2);
+        scoreText.getNode().setLayoutY(50);
+        gameScene.getChildren().add(scoreText.getNode());
         
         // Create hint text
         hintText = new Text("Click or press SPACE to change color!");
@@ -204,8 +281,10 @@ public class GameController {
         gameScene.setVisible(false);
     }
     
-    private void createNinja() {
-        ninjaContainer = new Group();
+    // Builds a ninja at its resting position. Sets the ninja field to its body, so the
+    // main lane's ninja is built last.
+    private Group createNinja() {
+        Group container = new Group();
         
         try {
             // Try to load ninja image
@@ -247,7 +326,8 @@ public class GameController {
             
             ninja = body; // Reference to main body for color changes
             
-            ninjaContainer.getChildren().addAll(body, head, leftArm, rightArm, leftLeg, rightLeg, ninjaImage);
+            container.getChildren().addAll(body, head, leftArm, rightArm, leftLeg, rightLeg, ninjaImage);
+            container.setUserData(new Circle[]{body, head, leftArm, rightArm, leftLeg, rightLeg});
             
         } catch (Exception e) {
             // Fallback ninja if image not found
@@ -265,13 +345,13 @@ public class GameController {
             rightEye.setLayoutX(12);
             rightEye.setLayoutY(-10);
             
-            ninjaContainer.getChildren().addAll(ninja, leftEye, rightEye);
+            container.getChildren().addAll(ninja, leftEye, rightEye);
+            container.setUserData(new Circle[]{ninja});
         }
         
-        ninjaContainer.setLayoutX(SCENE_WIDTH / 2);
-        ninjaContainer.setLayoutY(ninjaY);
-        
-        gameScene.getChildren().add(ninjaContainer);
+        container.setLayoutX(SCENE_WIDTH / 2);
+        container.setLayoutY(ninjaY);
+        return container;
     }
     
     private void createStartScreen() {
@@ -372,231 +452,230 @@ public class GameController {
     }
     
     public void startGame() {
-        hideAllScreens();
-        gameScene.setVisible(true);
+        restartNanos = System.nanoTime();
+        firstFramePending = true;
+        if (sessionTelemetry.isActive()) {
+            sessionTelemetry.sessionEnded("restart", score, getScoreGrade(score), shownLandings, System.nanoTime());
+        }
+        
+        showScreen(gameScene);
         
         score = 0;
         currentColorIndex = 0; // Always start with red
         isGameRunning = true;
-        stickSpeed = 2.0;
+        shownLandings = 0;
+        lastRenderNanos = -1;
         
-        // Reset ninja position and color
-        ninjaContainer.setLayoutY(ninjaY);
-        for (Node node : ninjaContainer.getChildren()) {
-            if (node instanceof Circle) {
-                Circle circle = (Circle) node;
-                if (circle.getFill() != Color.BLACK) { // Don't change eye color
-                    circle.setFill(GAME_COLORS[currentColorIndex]);
-                }
-            }
-        }
+        // Start a fresh game on the simulation thread
+        session++;
+        simulationThread.startSession(session);
+        sessionTelemetry.sessionStarted(session, System.nanoTime());
         
-        // Clear existing sticks
-        sticksContainer.getChildren().clear();
-        sticks.clear();
-        sticksToRemove.clear();
+        // Reset ninja position and color
+        placeNinjas(ninjaY, 1.0);
+        colorNinjas(GAME_COLORS[currentColorIndex]);
         
-        // Generate initial sticks
-        generateInitialSticks();
+        // Clear existing sticks, the first snapshot brings the new ones
+        for (TrackView track : tracks) {
+            track.clear();
+        }
         
         updateScore();
         
         // Show hint briefly
         showHint();
         
-        // Start game loop
+        // Start rendering
         startGameLoop();
-        startNinjaAnimation();
     }
     
-    private void generateInitialSticks() {
-        for (int i = 0; i < 10; i++) { // More sticks for original spacing
-            // Position sticks with proper spacing (90px stick + 90px margin = 180px total)
-            Stick stick = new Stick(SCENE_WIDTH + i * (STICK_WIDTH + 90), SCENE_HEIGHT - 252);
-            sticks.add(stick);
-            sticksContainer.getChildren().add(stick.getNode());
+    private void showHint() {
+        if (hintTimeline == null) {
+            hintTimeline = new Timeline(
+                new KeyFrame(Duration.ZERO, new KeyValue(hintText.opacityProperty(), 0)),
+                new KeyFrame(Duration.seconds(0.5), new KeyValue(hintText.opacityProperty(), 1)),
+                new KeyFrame(Duration.seconds(3), new KeyValue(hintText.opacityProperty(), 1)),
+                new KeyFrame(Duration.seconds(4), new KeyValue(hintText.opacityProperty(), 0))
+            );
         }
+        clock.play(hintTimeline);
     }
     
-    private void showHint() {
-        Timeline hintTimeline = new Timeline(
-            new KeyFrame(Duration.ZERO, new KeyValue(hintText.opacityProperty(), 0)),
-            new KeyFrame(Duration.seconds(0.5), new KeyValue(hintText.opacityProperty(), 1)),
-            new KeyFrame(Duration.seconds(3), new KeyValue(hintText.opacityProperty(), 1)),
-            new KeyFrame(Duration.seconds(4), new KeyValue(hintText.opacityProperty(), 0))
-        );
-        hintTimeline.play();
+    private void startGameLoop() {
+        if (gameLoop == null) {
+            gameLoop = new AnimationTimer() {
+                @Override
+                public void handle(long now) {
+                    long start = System.nanoTime();
+                    RenderSnapshot snapshot = simulationThread.latest();
+                    if (snapshot.session == session) {
+                        if (firstFramePending) {
+                            // The simulation has reset by now, so a better run is already saved
+                            restartGhost();
+                        }
+                        render(snapshot, now);
+                        if (firstFramePending) {
+                            firstFramePending = false;
+                            restartStats.record(System.nanoTime() - restartNanos);
+                        }
+                    }
+                    viewSync.endFrame();
+                    long renderNanos = System.nanoTime() - start;
+                    renderStats.record(renderNanos);
+                    if (snapshot.session == session) {
+                        sessionTelemetry.frame(now, renderNanos, snapshot);
+                    }
+                }
+            };
+        }
+        gameLoop.start();
     }
     
-    private void startGameLoop() {
-        gameLoop = new Timeline(new KeyFrame(Duration.millis(16), e -> updateGame()));
-        gameLoop.setCycleCount(Timeline.INDEFINITE);
-        gameLoop.play();
-    }
-    
-    private void startNinjaAnimation() {
-        // Ninja bouncing animation
-        ninjaAnimation = new Timeline(
-            new KeyFrame(Duration.ZERO, 
-                new KeyValue(ninjaContainer.layoutYProperty(), ninjaY),
-                new KeyValue(ninjaContainer.scaleYProperty(), 1.0)),
-            new KeyFrame(Duration.seconds(0.5), 
-                new KeyValue(ninjaContainer.layoutYProperty(), ninjaY - 100),
-                new KeyValue(ninjaContainer.scaleYProperty(), 1.1)),
-            new KeyFrame(Duration.seconds(1.0), 
-                new KeyValue(ninjaContainer.layoutYProperty(), ninjaY),
-                new KeyValue(ninjaContainer.scaleYProperty(), 0.8))
-        );
+    private void render(RenderSnapshot snapshot, long now) {
+        clock.setDifficultyScale(snapshot.difficultyScale);
         
-        ninjaAnimation.setOnFinished(e -> {
-            if (isGameRunning) {
-                // Change ninja color for next jump
-                changeNinjaColor();
-                checkCollision();
-                ninjaAnimation.play();
-            }
-        });
+        // How far we are into the tick after this snapshot, used to blend from the previous tick
+        double alpha = 1.0;
+        if (interpolationEnabled) {
+            alpha = (double) (now - snapshot.publishNanos) / snapshot.tickPeriodNanos;
+            alpha = Math.max(0.0, Math.min(1.0, alpha));
+        }
         
-        ninjaAnimation.play();
-    }
-    
-    private void updateGame() {
-        if (!isGameRunning) return;
+        placeNinjas(lerp(snapshot.prevNinjaY, snapshot.ninjaY, alpha),
+            lerp(snapshot.prevNinjaScaleY, snapshot.ninjaScaleY, alpha));
         
-        // Move sticks
-        for (Stick stick : sticks) {
-            stick.moveLeft(stickSpeed);
-            
-            // Mark sticks for removal if they're off screen
-            if (stick.getX() < -(STICK_WIDTH + 90)) {
-                sticksToRemove.add(stick);
-            }
+        if (snapshot.landings != shownLandings) {
+            shownLandings = snapshot.landings;
+            changeNinjaColor(snapshot.ninjaColor);
         }
         
-        // Remove off-screen sticks
-        while (!sticksToRemove.isEmpty()) {
-            Stick stick = sticksToRemove.poll();
-            sticks.remove(stick);
-            sticksContainer.getChildren().remove(stick.getNode());
+        if (snapshot.score != score) {
+            score = snapshot.score;
+            updateScore();
+            animateScoreIncrease();
         }
         
-        // Add new sticks
-        if (sticks.size() < 10) {
-            double lastStickX = sticks.isEmpty() ? SCENE_WIDTH : 
-                               sticks.get(sticks.size() - 1).getX();
-            Stick newStick = new Stick(lastStickX + (STICK_WIDTH + 90), SCENE_HEIGHT - 362);
-            sticks.add(newStick);
-            sticksContainer.getChildren().add(newStick.getNode());
+        GhostPlayer ghost = null;
+        if (ghostPlayer != null && ghostPlayer.isActive()) {
+            ghost = ghostPlayer;
+            ghost.advance(snapshot.tick);
+            ghostScoreText.setNumber(ghost.getScore());
+            viewSync.opacity(ghostNinja, ghost.isLastLandingScored() ? 0.35 : 0.15);
+            // The ghost's run ended here; the live game carries on without it
+            viewSync.visible(ghostNinja, !ghost.isFinished());
+            viewSync.visible(ghostScoreText.getNode(), !ghost.isFinished());
+        }
+        for (int i = 0; i < tracks.size(); i++) {
+            tracks.get(i).sync(snapshot, alpha, ghost);
         }
+        recordMotion(snapshot, now);
         
-        // Increase speed based on score
-        if (score > 0 && score % 10 == 0) {
-            stickSpeed = Math.min(4.0, 2.0 + score * 0.02);
+        if (snapshot.gameOver) {
+            gameOver();
         }
     }
     
-    private void changeNinjaColor() {
-        // Change to next color in sequence
-        currentColorIndex = (currentColorIndex + 1) % GAME_COLORS.length;
-        Color newColor = GAME_COLORS[currentColorIndex];
-        
-        // Update all colored ninja parts
-        for (Node node : ninjaContainer.getChildren()) {
-            if (node instanceof Circle) {
-                Circle circle = (Circle) node;
-                if (circle.getFill() != Color.BLACK) { // Don't change eye color
-                    circle.setFill(newColor);
-                }
-            }
+    private static double lerp(double from, double to, double alpha) {
+        return from + (to - from) * alpha;
+    }
+    
+    private void recordMotion(RenderSnapshot snapshot, long now) {
+        // Compare how far the front stick moved as drawn with how far the track should have
+        // moved in the time this frame covered. Frames where the front stick changed are skipped.
+        TrackView track = tracks.get(0);
+        long frontId = track.getFrontId();
+        double frontX = track.getFrontShownX();
+        if (lastRenderNanos >= 0 && frontId >= 0 && frontId == lastFrontId) {
+            double velocity = (snapshot.scroll - snapshot.prevScroll) / snapshot.tickPeriodNanos;
+            motionStats.record(lastFrontX - frontX, velocity * (now - lastRenderNanos));
+        }
+        lastRenderNanos = now;
+        lastFrontId = frontId;
+        lastFrontX = frontX;
+    }
+    
+    private void placeNinjas(double y, double scaleY) {
+        placeNinja(ninjaContainer, y, scaleY);
+        if (ghostNinja != null) {
+            placeNinja(ghostNinja, y, scaleY);
+        }
+        for (int i = 0; i < laneNinjas.size(); i++) {
+            placeNinja(laneNinjas.get(i), y, scaleY);
+        }
+    }
+    
+    private void placeNinja(Group ninjaGroup, double y, double scaleY) {
+        viewSync.layoutY(ninjaGroup, y);
+        viewSync.scaleY(ninjaGroup, scaleY);
+    }
+    
+    private void colorNinjas(Color color) {
+        // Every ninja shares one color, so an unchanged color means nothing to write
+        if (color == shownNinjaColor) return;
+        shownNinjaColor = color;
+        colorNinja(ninjaContainer, color);
+        if (ghostNinja != null) {
+            colorNinja(ghostNinja, color);
+        }
+        for (int i = 0; i < laneNinjas.size(); i++) {
+            colorNinja(laneNinjas.get(i), color);
         }
-        
-        // Add color change effect
-        Timeline colorEffect = new Timeline(
-            new KeyFrame(Duration.ZERO, new KeyValue(ninjaContainer.scaleXProperty(), 1.0)),
-            new KeyFrame(Duration.millis(100), new KeyValue(ninjaContainer.scaleXProperty(), 1.2)),
-            new KeyFrame(Duration.millis(200), new KeyValue(ninjaContainer.scaleXProperty(), 1.0))
-        );
-        colorEffect.play();
     }
     
-    private void checkCollision() {
-        double ninjaX = ninjaContainer.getLayoutX();
+    private void colorNinja(Group ninjaGroup, Color color) {
+        // Update all colored ninja parts, collected when the ninja was built
+        for (Circle part : (Circle[]) ninjaGroup.getUserData()) {
+            viewSync.fill(part, color);
+        }
+    }
+    
+    private void changeNinjaColor(int colorIndex) {
+        currentColorIndex = colorIndex;
+        colorNinjas(GAME_COLORS[currentColorIndex]);
         
-        for (Stick stick : sticks) {
-            double stickLeft = stick.getX();
-            double stickRight = stick.getX() + STICK_WIDTH;
-            
-            // Check if ninja is over this stick
-            if (ninjaX >= stickLeft && ninjaX <= stickRight) {
-                if (stick.getColorIndex() == currentColorIndex) {
-                    // Correct color match
-                    score++;
-                    updateScore();
-                    animateScoreIncrease();
-                } else {
-                    // Wrong color - game over
-//                    gameOver();
-                }
-                break;
-            }
+        // Add color change effect
+        if (ninjaColorEffect == null) {
+            ninjaColorEffect = new Timeline(
+                new KeyFrame(Duration.ZERO, new KeyValue(ninjaContainer.scaleXProperty(), 1.0)),
+                new KeyFrame(Duration.millis(100), new KeyValue(ninjaContainer.scaleXProperty(), 1.2)),
+                new KeyFrame(Duration.millis(200), new KeyValue(ninjaContainer.scaleXProperty(), 1.0))
+            );
         }
+        clock.play(ninjaColorEffect);
     }
     
     private void animateScoreIncrease() {
-        Timeline scoreAnimation = new Timeline(
-            new KeyFrame(Duration.ZERO, new KeyValue(scoreLabel.scaleXProperty(), 1.0)),
-            new KeyFrame(Duration.millis(100), new KeyValue(scoreLabel.scaleXProperty(), 1.3)),
-            new KeyFrame(Duration.millis(200), new KeyValue(scoreLabel.scaleXProperty(), 1.0))
-        );
-        scoreAnimation.play();
+        scoreText.pulse();
     }
     
     public void switchColor() {
         if (!isGameRunning) return;
         
-        // Find the stick that's closest to the ninja
-        double ninjaX = ninjaContainer.getLayoutX();
-        Stick closestStick = null;
-        double minDistance = Double.MAX_VALUE;
-        
-        for (Stick stick : sticks) {
-            double distance = Math.abs(stick.getX() + STICK_WIDTH / 2 - ninjaX);
-            if (distance < minDistance && stick.getX() + STICK_WIDTH > ninjaX - 150) {
-                minDistance = distance;
-                closestStick = stick;
-            }
-        }
-        
-        if (closestStick != null) {
-            closestStick.switchColor();
-        }
+        // Applied to the stick closest to the ninja on the next simulation tick
+        simulationThread.getSimulation().requestSwitch();
+        sessionTelemetry.input();
     }
     
     private void updateScore() {
-        scoreLabel.setText(String.valueOf(score));
+        scoreText.setNumber(score);
     }
     
     private void gameOver() {
         isGameRunning = false;
+        sessionTelemetry.sessionEnded("game_over", score, getScoreGrade(score), shownLandings, System.nanoTime());
         
         if (gameLoop != null) {
             gameLoop.stop();
         }
-        if (ninjaAnimation != null) {
-            ninjaAnimation.stop();
-        }
         
         showGameOverScreen();
     }
     
     private void showStartScreen() {
-        hideAllScreens();
-        startScreen.setVisible(true);
+        showScreen(startScreen);
     }
     
-    private void showGameOverScreen() {
-        hideAllScreens();
-        
+    private void showGameOverScreen() {        
         // Update game over screen with final score
         Node[] components = (Node[]) gameOverScreen.getUserData();
         Label finalScore = (Label) components[0];
@@ -605,7 +684,7 @@ public class GameController {
         finalScore.setText("Final Score: " + score);
         gradeLabel.setText(getScoreGrade(score));
         
-        gameOverScreen.setVisible(true);
+        showScreen(gameOverScreen);
     }
     
     private String getScoreGrade(int score) {
@@ -619,10 +698,11 @@ public class GameController {
         return "Poor...";
     }
     
-    private void hideAllScreens() {
-        startScreen.setVisible(false);
-        gameOverScreen.setVisible(false);
-        gameScene.setVisible(false);
+    // Shows one screen and hides the others, touching only the ones that change
+    private void showScreen(Node screen) {
+        viewSync.visible(startScreen, screen == startScreen);
+        viewSync.visible(gameOverScreen, screen == gameOverScreen);
+        viewSync.visible(gameScene, screen == gameScene);
     }
     
     public StackPane getRoot() {
@@ -632,29 +712,125 @@ public class GameController {
     public boolean isGameRunning() {
         return isGameRunning;
     }
+    
+    // Ends the current game on the next tick, the game over screen follows as usual
+    public void endGame() {
+        if (isGameRunning) {
+            simulationThread.getSimulation().requestEnd();
+        }
+    }
+    
+    public long getLandings() {
+        return shownLandings;
+    }
+    
+    public void shutdown() {
+        if (gameLoop != null) {
+            gameLoop.stop();
+        }
+        simulationThread.shutdown();
+        trackGenerator.shutdown();
+        if (ghostRecorder != null) {
+            // After the simulation thread, so the run it finished on the way out gets written
+            ghostRecorder.shutdown();
+        }
+        
+        if (sessionTelemetry.isActive()) {
+            sessionTelemetry.sessionEnded("exit", score, getScoreGrade(score), shownLandings, System.nanoTime());
+        }
+        telemetryWriter.shutdown();
+    }
+    
+    public String timingReport() {
+        return simulationThread.getTickStats().summary() + System.lineSeparator()
+            + renderStats.summary() + System.lineSeparator()
+            + motionStats.summary() + System.lineSeparator()
+            + restartStats.summary() + System.lineSeparator()
+            + viewSync.summary() + System.lineSeparator()
+            + "Stick views built: " + tracks.get(0).getViewCount() + System.lineSeparator()
+            + "Track generator underruns: " + trackGenerator.getUnderruns();
+    }
+    
+    public void setInterpolationEnabled(boolean interpolationEnabled) {
+        this.interpolationEnabled = interpolationEnabled;
+    }
+    
+    // Records every run and races the best one so far, replayed from the recorder's file.
+    // Call before the first game starts.
+    public void enableGhostRun(GhostRecorder recorder) {
+        ghostRecorder = recorder;
+        ghostRecorder.start();
+        ghostPlayer = new GhostPlayer(recorder);
+        simulationThread.getSimulation().setGhostRecorder(recorder);
+        
+        // A translucent ninja just behind the live one, with the ghost's score above it
+        Circle mainBody = ninja;
+        ghostNinja = createNinja();
+        ninja = mainBody;
+        ghostNinja.setLayoutX(SCENE_WIDTH / 2 - 90);
+        ghostNinja.setOpacity(0.35);
+        ghostNinja.setVisible(false);
+        gameScene.getChildren().add(gameScene.getChildren().indexOf(ninjaContainer), ghostNinja);
+        shownNinjaColor = null; // The new ninja still needs its first color
+        
+        ghostScoreText = new BitmapText(scoreGlyphs, 6, clock, viewSync);
+        ghostScoreText.getNode().setLayoutX(SCENE_WIDTH / 2 - 90 + NINJA_SIZE / 2);
+        ghostScoreText.getNode().setLayoutY(ninjaY - 190);
+        ghostScoreText.getNode().setScaleX(0.5);
+        ghostScoreText.getNode().setScaleY(0.5);
+        ghostScoreText.getNode().setOpacity(0.5);
+        ghostScoreText.getNode().setVisible(false);
+        gameScene.getChildren().add(ghostScoreText.getNode());
+    }
+    
+    private void restartGhost() {
+        if (ghostPlayer == null) return;
+        ghostPlayer.restart();
+        viewSync.visible(ghostNinja, ghostPlayer.isActive());
+        viewSync.visible(ghostScoreText.getNode(), ghostPlayer.isActive());
+        ghostScoreText.setNumber(0);
+    }
+    
+    public TimingStats getRenderStats() {
+        return renderStats;
+    }
+    
+    public GameClock getClock() {
+        return clock;
+    }
+    
+    public TelemetryWriter getTelemetryWriter() {
+        return telemetryWriter;
+    }
+    
+    public AudioService getAudioService() {
+        return audioService;
+    }
+    
+    // Null unless ghost runs are on
+    public GhostRecorder getGhostRecorder() {
+        return ghostRecorder;
+    }
 
     private void createAnimatedWaves(Group background) {
         // Create wave layers using actual wave images with infinite scrolling effect
-        
-        // Wave 1 (bottom layer)
-        Group wave1Group = createWaveLayer("/images/wave1.svg", SCENE_HEIGHT - 150, 150, 0.8, 15);
-        background.getChildren().add(wave1Group);
-        
-        // Wave 2
-        Group wave2Group = createWaveLayer("/images/wave2.svg", SCENE_HEIGHT - 210, 180, 0.6, 18);
-        background.getChildren().add(wave2Group);
-        
-        // Wave 3
-        Group wave3Group = createWaveLayer("/images/wave3.svg", SCENE_HEIGHT - 270, 180, 0.4, 20);
-        background.getChildren().add(wave3Group);
-        
-        // Wave 4 (top layer)
-        Group wave4Group = createWaveLayer("/images/wave4.svg", SCENE_HEIGHT - 330, 180, 0.3, 22);
-        background.getChildren().add(wave4Group);
+        int layers = stressConfig.getWaveLayers();
+        
+        // Wave 1 (bottom layer) to wave 4 (top layer). Stress mode repeats them further up.
+        // The surface wave counts as one of the layers, so N layers are N - 1 waves plus it.
+        for (int i = 0; i < layers - 1; i++) {
+            int wave = i % 4;
+            double rise = (i / 4) * 40;
+            Group waveGroup = createWaveLayer(WAVE_IMAGES[wave], SCENE_HEIGHT - 150 - wave * 60 - rise,
+                wave == 0 ? 150 : 180, WAVE_OPACITIES[wave], WAVE_DURATIONS[wave] + (i / 4));
+            background.getChildren().add(waveGroup);
+        }
         
         // Top wave (surface)
-        Group topWaveGroup = createWaveLayer("/images/top_wave.svg", SCENE_HEIGHT - 35, 35, 0.9, 12);
-        background.getChildren().add(topWaveGroup);
+        if (layers > 0) {
+            Group topWaveGroup = createWaveLayer("/images/top_wave.svg", SCENE_HEIGHT - 35, 35, 0.9, 12);
+            background.getChildren().add(topWaveGroup);
+        }
     }
     
     private Group createWaveLayer(String imagePath, double yPosition, double height, double opacity, double animationDuration) {
@@ -688,6 +864,7 @@ public class GameController {
                     new KeyFrame(Duration.seconds(animationDuration), new KeyValue(waveGroup.layoutXProperty(), -imageWidth))
                 );
                 waveAnimation.setCycleCount(Timeline.INDEFINITE);
+                clock.register(waveAnimation);
                 waveAnimation.play();
                 
             } else {
@@ -723,6 +900,7 @@ public class GameController {
             new KeyFrame(Duration.seconds(animationDuration), new KeyValue(waveGroup.layoutXProperty(), -(SCENE_WIDTH + 100)))
         );
         waveAnimation.setCycleCount(Timeline.INDEFINITE);
+        clock.register(waveAnimation);
         waveAnimation.play();
     }
 }
@@ -0,0 +1,379 @@
+package com.spaceninja;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The game rules, free of any JavaFX nodes. Confined to the simulation thread; the only
+ * entry point from other threads is requestSwitch(). The renderer sees the state through
+ * RenderSnapshots written by writeSnapshot().
+ */
+public class GameSimulation {
+
+    // The game advances in fixed 16 ms ticks (the original loop period) and a jump lasts
+    // exactly one second, so landings never depend on frame timing.
+    static final long TICK_NANOS = 16_000_000L;
+    static final long JUMP_NANOS = 1_000_000_000L;
+    static final double JUMP_HEIGHT = 100;
+    static final double STICK_SPEED = 2.0; // px per tick
+    static final double MAX_DIFFICULTY_SCALE = 2.0;
+
+    static final int COLOR_COUNT = 3; // Red, green, blue
+    static final int DEFAULT_MAX_STICKS = 10;
+    static final double STICK_WIDTH = 90;
+    static final double STICK_SPACING = STICK_WIDTH + 90; // 90px stick + 90px margin
+    static final double SCENE_WIDTH = GameController.SCENE_WIDTH;
+    static final double SCENE_HEIGHT = GameController.SCENE_HEIGHT;
+    static final double NINJA_X = SCENE_WIDTH / 2;
+    static final double NINJA_Y = SCENE_HEIGHT - 200;
+
+    private final AudioService audioService;
+    private final AllocationMonitor allocationMonitor;
+    private final TrackGenerator trackGenerator;
+    private GhostRecorder ghostRecorder; // Null unless ghost runs are on
+
+    // Input from the FX thread, drained once per tick
+    private final AtomicInteger pendingSwitches = new AtomicInteger();
+    private volatile boolean endRequested;
+
+    // Game state
+    private int session;
+    private boolean running;
+    private boolean gameOver;
+    private int score;
+    private int ninjaColor;
+
+    // Difficulty speeds up the game clock instead of the sticks alone, so jumps, scrolling
+    // and every animation stay in step. Read by the simulation thread to pace its ticks.
+    private double difficultyScale;
+
+    // Simulation time since the game started, completed jumps and track scrolled so far.
+    // Sticks scroll at a constant speed in simulation time, so the distance is exact.
+    private long tick;
+    private long simNanos;
+    private long landings;
+    private double distance;
+    private double previousDistance; // At the end of the previous tick
+    private double distanceAtLanding;
+
+    // Sticks in track order, oldest first
+    private int stickCount;
+    private long nextStickId;
+    private long firstStickId; // Of this game; sticks line up across games by id - firstStickId
+    private final int maxSticks;
+    private final long[] stickIds;
+    private final double[] stickTrackX;
+    private final double[] stickY;
+    private final int[] stickColors;
+    private final boolean[] stickActive;
+    private final int[] stickEffects;
+    private final int[] stickSwitches;
+
+    public GameSimulation(TrackGenerator trackGenerator, AudioService audioService, AllocationMonitor allocationMonitor) {
+        this(DEFAULT_MAX_STICKS, trackGenerator, audioService, allocationMonitor);
+    }
+
+    // More sticks than the default just extend the track further past the right edge
+    public GameSimulation(int maxSticks, TrackGenerator trackGenerator, AudioService audioService, AllocationMonitor allocationMonitor) {
+        this.maxSticks = maxSticks;
+        this.stickIds = new long[maxSticks];
+        this.stickTrackX = new double[maxSticks];
+        this.stickY = new double[maxSticks];
+        this.stickColors = new int[maxSticks];
+        this.stickActive = new boolean[maxSticks];
+        this.stickEffects = new int[maxSticks];
+        this.stickSwitches = new int[maxSticks];
+        this.trackGenerator = trackGenerator;
+        this.audioService = audioService;
+        this.allocationMonitor = allocationMonitor;
+    }
+
+    // Set before the first session starts
+    public void setGhostRecorder(GhostRecorder ghostRecorder) {
+        this.ghostRecorder = ghostRecorder;
+    }
+
+    public void reset(int session) {
+        // A game cut short by a restart still counts as a run
+        endRecording();
+        if (ghostRecorder != null) {
+            ghostRecorder.begin();
+        }
+
+        this.session = session;
+        running = true;
+        gameOver = false;
+        score = 0;
+        ninjaColor = 0; // Always start with red
+        difficultyScale = 1.0;
+        tick = 0;
+        simNanos = 0;
+        landings = 0;
+        distance = 0;
+        previousDistance = 0;
+        distanceAtLanding = 0;
+        pendingSwitches.set(0);
+        endRequested = false;
+
+        stickCount = 0;
+        firstStickId = nextStickId;
+        generateInitialSticks();
+    }
+
+    private void generateInitialSticks() {
+        // The first stick starts right at the edge of the screen
+        addStick(SCENE_WIDTH);
+        while (stickCount < maxSticks) {
+            addStick(stickTrackX[stickCount - 1] + STICK_WIDTH + trackGenerator.nextGap());
+        }
+    }
+
+    private void addStick(double trackX) {
+        // Layout comes precomputed from the track generator
+        int i = stickCount++;
+        stickIds[i] = nextStickId++;
+        stickTrackX[i] = trackX;
+        stickY[i] = SCENE_HEIGHT - trackGenerator.nextHeight();
+        stickColors[i] = 0;
+        stickActive[i] = false; // Inactive until the player switches it
+        stickEffects[i] = trackGenerator.nextEffect();
+        stickSwitches[i] = 0;
+        trackGenerator.advance();
+    }
+
+    private void removeFirstStick() {
+        stickCount--;
+        System.arraycopy(stickIds, 1, stickIds, 0, stickCount);
+        System.arraycopy(stickTrackX, 1, stickTrackX, 0, stickCount);
+        System.arraycopy(stickY, 1, stickY, 0, stickCount);
+        System.arraycopy(stickColors, 1, stickColors, 0, stickCount);
+        System.arraycopy(stickActive, 1, stickActive, 0, stickCount);
+        System.arraycopy(stickEffects, 1, stickEffects, 0, stickCount);
+        System.arraycopy(stickSwitches, 1, stickSwitches, 0, stickCount);
+    }
+
+    private double stickX(int i) {
+        return stickTrackX[i] - distance;
+    }
+
+    // Safe to call from any thread; applied on the next tick
+    public void requestSwitch() {
+        pendingSwitches.incrementAndGet();
+    }
+
+    // Ends the game on the next tick as if the player had missed. Used by the soak test,
+    // which has to die and restart over and over.
+    public void requestEnd() {
+        endRequested = true;
+    }
+
+    public int getMaxSticks() {
+        return maxSticks;
+    }
+
+    public double getDifficultyScale() {
+        return difficultyScale;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void step() {
+        if (!running) return;
+
+        allocationMonitor.begin(AllocationMonitor.Section.UPDATE_GAME);
+
+        int switches = pendingSwitches.getAndSet(0);
+        for (int i = 0; i < switches; i++) {
+            switchColor();
+        }
+        if (endRequested) {
+            endRequested = false;
+            gameOver();
+            allocationMonitor.end(AllocationMonitor.Section.UPDATE_GAME);
+            return;
+        }
+
+        previousDistance = distance;
+        long tickEnd = simNanos + TICK_NANOS;
+
+        // Resolve any landing inside this tick at its exact time, with the sticks where they
+        // are at that instant rather than where the tick happens to leave them
+        long nextLanding = (landings + 1) * JUMP_NANOS;
+        while (nextLanding <= tickEnd && running) {
+            distanceAtLanding += STICK_SPEED * ((double) JUMP_NANOS / TICK_NANOS);
+            landings++;
+            simNanos = nextLanding;
+            distance = distanceAtLanding;
+            recycleSticks();
+            land();
+            nextLanding = (landings + 1) * JUMP_NANOS;
+        }
+
+        tick++;
+        simNanos = tickEnd;
+        distance = distanceAt(simNanos);
+        recycleSticks();
+
+        allocationMonitor.end(AllocationMonitor.Section.UPDATE_GAME);
+    }
+
+    private double distanceAt(long time) {
+        long sinceLanding = time - landings * JUMP_NANOS;
+        return distanceAtLanding + STICK_SPEED * ((double) sinceLanding / TICK_NANOS);
+    }
+
+    private void recycleSticks() {
+        // Drop sticks that have scrolled off screen
+        while (stickCount > 0 && stickX(0) < -STICK_SPACING) {
+            removeFirstStick();
+        }
+
+        // Add new sticks, placed on the track after the last one
+        while (stickCount < maxSticks) {
+            double lastTrackX = stickCount == 0 ? SCENE_WIDTH + distance : stickTrackX[stickCount - 1];
+            addStick(lastTrackX + STICK_WIDTH + trackGenerator.nextGap());
+        }
+    }
+
+    private void land() {
+        allocationMonitor.begin(AllocationMonitor.Section.LANDING);
+
+        // Change ninja color for next jump
+        ninjaColor = (ninjaColor + 1) % COLOR_COUNT;
+        checkCollision();
+        audioService.trigger(AudioService.Sound.JUMP);
+
+        // Speed the whole game up based on score, the same ramp the sticks used to get alone
+        if (score > 0 && score % 10 == 0) {
+            difficultyScale = Math.min(MAX_DIFFICULTY_SCALE, 1.0 + score * 0.01);
+        }
+
+        allocationMonitor.end(AllocationMonitor.Section.LANDING);
+    }
+
+    private void checkCollision() {
+        for (int i = 0; i < stickCount; i++) {
+            double stickLeft = stickX(i);
+            double stickRight = stickLeft + STICK_WIDTH;
+
+            // Check if ninja is over this stick
+            if (NINJA_X >= stickLeft && NINJA_X <= stickRight) {
+                if (stickActive[i] && stickColors[i] == ninjaColor) {
+                    // Correct color match
+                    score++;
+                    audioService.trigger(AudioService.Sound.SCORE);
+                    recordLanding(true);
+                } else {
+                    // Wrong color - game over
+                    recordLanding(false);
+//                    gameOver();
+                }
+                return;
+            }
+        }
+        recordLanding(false);
+    }
+
+    private void recordLanding(boolean scored) {
+        if (ghostRecorder != null) {
+            ghostRecorder.landed(tick, scored, score);
+        }
+    }
+
+    private void switchColor() {
+        allocationMonitor.begin(AllocationMonitor.Section.SWITCH_COLOR);
+
+        // Find the stick that's closest to the ninja
+        int closest = -1;
+        double minDistance = Double.MAX_VALUE;
+
+        for (int i = 0; i < stickCount; i++) {
+            double x = stickX(i);
+            double d = Math.abs(x + STICK_WIDTH / 2 - NINJA_X);
+            if (d < minDistance && x + STICK_WIDTH > NINJA_X - 150) {
+                minDistance = d;
+                closest = i;
+            }
+        }
+
+        if (closest >= 0) {
+            // Cycle through the active colors
+            stickColors[closest] = (stickColors[closest] + 1) % COLOR_COUNT;
+            stickActive[closest] = true;
+            stickSwitches[closest]++;
+            audioService.trigger(AudioService.Sound.SWITCH_COLOR);
+            if (ghostRecorder != null) {
+                ghostRecorder.switched(tick, stickIds[closest] - firstStickId, stickColors[closest]);
+            }
+        }
+
+        allocationMonitor.end(AllocationMonitor.Section.SWITCH_COLOR);
+    }
+
+    private void gameOver() {
+        running = false;
+        gameOver = true;
+        audioService.trigger(AudioService.Sound.GAME_OVER);
+        endRecording();
+    }
+
+    public void endRecording() {
+        if (ghostRecorder != null) {
+            ghostRecorder.finish(score);
+        }
+    }
+
+    // Ninja bouncing: up and stretch for the first half of the jump, down and squash for the second.
+    // Landings are at whole multiples of the jump period, so the phase is just the remainder.
+    private static double jumpPhase(long time) {
+        return (double) (time % JUMP_NANOS) / JUMP_NANOS;
+    }
+
+    static double ninjaYAt(long time) {
+        double phase = jumpPhase(time);
+        if (phase < 0.5) {
+            return NINJA_Y - JUMP_HEIGHT * (phase / 0.5);
+        }
+        return NINJA_Y - JUMP_HEIGHT * (1 - (phase - 0.5) / 0.5);
+    }
+
+    static double ninjaScaleYAt(long time) {
+        double phase = jumpPhase(time);
+        if (phase < 0.5) {
+            return 1.0 + 0.1 * (phase / 0.5);
+        }
+        return 1.1 - 0.3 * ((phase - 0.5) / 0.5);
+    }
+
+    public void writeSnapshot(RenderSnapshot snapshot) {
+        snapshot.session = session;
+        snapshot.tick = tick;
+        snapshot.simNanos = simNanos;
+        snapshot.gameOver = gameOver;
+        snapshot.score = score;
+        snapshot.landings = landings;
+        snapshot.ninjaColor = ninjaColor;
+        snapshot.difficultyScale = difficultyScale;
+        snapshot.firstStickId = firstStickId;
+
+        long previousNanos = Math.max(0, simNanos - TICK_NANOS);
+        snapshot.scroll = distance;
+        snapshot.prevScroll = previousDistance;
+        snapshot.ninjaY = ninjaYAt(simNanos);
+        snapshot.prevNinjaY = ninjaYAt(previousNanos);
+        snapshot.ninjaScaleY = ninjaScaleYAt(simNanos);
+        snapshot.prevNinjaScaleY = ninjaScaleYAt(previousNanos);
+
+        snapshot.stickCount = stickCount;
+        for (int i = 0; i < stickCount; i++) {
+            snapshot.stickIds[i] = stickIds[i];
+            snapshot.stickX[i] = stickX(i);
+            snapshot.prevStickX[i] = stickTrackX[i] - previousDistance;
+            snapshot.stickY[i] = stickY[i];
+            snapshot.stickColors[i] = stickActive[i] ? stickColors[i] : -1;
+            snapshot.stickEffects[i] = stickEffects[i];
+            snapshot.stickSwitches[i] = stickSwitches[i];
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.spaceninja;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Replays the saved ghost run on the FX thread. Each saved file is memory-mapped once and
+ * decoded a record at a time up to the live game's current tick, using absolute reads only,
+ * so replay allocates nothing and keeps just a small ring of stick colors.
+ */
+public class GhostPlayer {
+
+    private static final int RING = 64; // Power of two, well above the sticks on screen
+
+    private final GhostRecorder recorder;
+    private MappedByteBuffer data;
+    private Path mappedFile;
+    private int recordCount;
+
+    // Replay position and the ghost's state at that point
+    private int next;
+    private int score;
+    private boolean lastLandingScored = true;
+    private final long[] ringOrdinals = new long[RING];
+    private final int[] ringColors = new int[RING];
+
+    public GhostPlayer(GhostRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    // Rewinds for a new game, mapping the ghost again only if a better run was saved since
+    public void restart() {
+        Path saved = recorder.getSavedFile();
+        if (saved != mappedFile) {
+            mappedFile = saved;
+            map();
+        }
+        next = 0;
+        score = 0;
+        lastLandingScored = true;
+        for (int i = 0; i < RING; i++) {
+            ringOrdinals[i] = -1;
+        }
+    }
+
+    private void map() {
+        // The old mapping goes with its buffer; its file is never written to again
+        data = null;
+        recordCount = 0;
+        if (mappedFile == null) return;
+        try (FileChannel channel = FileChannel.open(mappedFile, StandardOpenOption.READ)) {
+            if (channel.size() < GhostRecorder.HEADER_BYTES) return;
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (mapped.getInt(0) != GhostRecorder.MAGIC) return;
+            int count = mapped.getInt(4);
+            long available = (channel.size() - GhostRecorder.HEADER_BYTES) / GhostRecorder.RECORD_BYTES;
+            recordCount = (int) Math.min(count, available);
+            data = mapped;
+        } catch (IOException e) {
+            System.err.println("Ghost run unavailable: " + e.getMessage());
+        }
+    }
+
+    public boolean isActive() {
+        return data != null;
+    }
+
+    // Applies every ghost event that happened before the given simulation tick
+    public void advance(long tick) {
+        if (data == null) return;
+        while (next < recordCount) {
+            int base = GhostRecorder.HEADER_BYTES + next * GhostRecorder.RECORD_BYTES;
+            if (data.getInt(base) >= tick) break;
+            byte type = data.get(base + 4);
+            int value = data.get(base + 5);
+            int extra = data.getInt(base + 8);
+            if (type == GhostRecorder.SWITCH) {
+                int slot = extra & (RING - 1);
+                ringOrdinals[slot] = extra;
+                ringColors[slot] = value;
+            } else if (type == GhostRecorder.LANDING) {
+                lastLandingScored = value != 0;
+                score = extra;
+            }
+            next++;
+        }
+    }
+
+    // The ghost's color for a stick, or -1 if the ghost never switched it
+    public int colorOf(long stickOrdinal) {
+        int slot = (int) (stickOrdinal & (RING - 1));
+        return ringOrdinals[slot] == stickOrdinal ? ringColors[slot] : -1;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public boolean isLastLandingScored() {
+        return lastLandingScored;
+    }
+
+    // Replayed past the last recorded event, so the ghost run is over
+    public boolean isFinished() {
+        return next >= recordCount;
+    }
+}
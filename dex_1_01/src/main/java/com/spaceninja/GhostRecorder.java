@@ -0,0 +1,297 @@
+package com.spaceninja;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records a run as fixed-size binary records: every color switch and every landing, stamped
+ * with the simulation tick. The simulation thread only fills preallocated direct buffers and
+ * hands them over through a ring; a background thread streams them to a temporary file, so a
+ * long run uses constant memory and the fixed-tick loop never waits on the disk. If the ring
+ * is full the rest of that run is dropped and counted.
+ *
+ * A run that beats the best one is saved as a new numbered file (ghost.run.1, ghost.run.2, ...)
+ * rather than over the old one, because the player may still have the old one mapped, and a
+ * mapped file can't be replaced on Windows. Older files are deleted when that's possible and
+ * otherwise on the next start.
+ *
+ * File layout: a 16-byte header (magic, record count, final score, reserved) followed by
+ * 12-byte records (tick, type, value, stick ordinal or score).
+ */
+public class GhostRecorder {
+
+    static final int MAGIC = 0x534E4748; // "SNGH"
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 12;
+    static final byte SWITCH = 0;  // value: new color, extra: stick ordinal in the run
+    static final byte LANDING = 1; // value: 1 if it scored, extra: score after landing
+
+    private static final int CAPACITY = 8; // Power of two
+    private static final int CHUNK_BYTES = 16 * 1024;
+    private static final long IDLE_PARK_NANOS = 100_000_000L;
+
+    // A buffer of records on its way to the writer, plus what the writer needs to know about it
+    private static class Chunk {
+        final ByteBuffer data = ByteBuffer.allocateDirect(CHUNK_BYTES);
+        boolean first; // Starts a new run
+        boolean last;  // Ends the run: records and score are set
+        int records;
+        int score;
+
+        void clear() {
+            data.clear();
+            first = false;
+            last = false;
+            records = 0;
+            score = 0;
+        }
+    }
+
+    private final Path file;
+    private final Path tempFile;
+
+    // Single-producer (simulation thread) / single-consumer (writer thread) ring of chunks
+    private final Chunk[] chunks = new Chunk[CAPACITY];
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    // Simulation thread state
+    private Chunk current; // Null when not recording
+    private int records;
+    private long droppedRuns = 0;
+
+    // Writer thread state
+    private final ByteBuffer header = ByteBuffer.allocateDirect(HEADER_BYTES);
+    private FileChannel channel;
+    private int bestScore;
+    private int version;
+    private long savedRuns = 0;
+    private volatile boolean running;
+    private Thread writerThread;
+
+    private volatile Path savedFile; // The current ghost, null if there is none yet
+
+    public GhostRecorder(Path file) {
+        this.file = file.toAbsolutePath();
+        this.tempFile = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+        for (int i = 0; i < CAPACITY; i++) {
+            chunks[i] = new Chunk();
+        }
+        loadBest();
+    }
+
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::run, "ghost-writer");
+        writerThread.setDaemon(true);
+        writerThread.setPriority(Thread.MIN_PRIORITY);
+        writerThread.start();
+    }
+
+    // Writes whatever is queued, including a run finished just before, then stops
+    public void shutdown() {
+        if (writerThread == null) return;
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // The saved ghost to replay. Changes only when a better run has been written out.
+    public Path getSavedFile() {
+        return savedFile;
+    }
+
+    // Producer side, simulation thread only
+
+    public void begin() {
+        records = 0;
+        current = claim();
+        if (current != null) {
+            current.first = true;
+        }
+    }
+
+    public void switched(long tick, long stickOrdinal, int color) {
+        put(tick, SWITCH, color, (int) stickOrdinal);
+    }
+
+    public void landed(long tick, boolean scored, int score) {
+        put(tick, LANDING, scored ? 1 : 0, score);
+    }
+
+    private void put(long tick, byte type, int value, int extra) {
+        if (current == null) return;
+        if (current.data.remaining() < RECORD_BYTES) {
+            publish();
+            current = claim();
+            if (current == null) return;
+        }
+        current.data.putInt((int) tick).put(type).put((byte) value).putShort((short) 0).putInt(extra);
+        records++;
+    }
+
+    // Ends the run. The writer saves it as the new ghost if it beat the old one.
+    public void finish(int score) {
+        if (current == null) return;
+        current.last = true;
+        current.records = records;
+        current.score = score;
+        publish();
+    }
+
+    private Chunk claim() {
+        long t = tail.get();
+        if (t - head.get() >= CAPACITY) {
+            // The writer is far behind; without the start of the run the rest is useless
+            droppedRuns++;
+            return null;
+        }
+        Chunk chunk = chunks[(int) (t & (CAPACITY - 1))];
+        chunk.clear();
+        return chunk;
+    }
+
+    private void publish() {
+        tail.lazySet(tail.get() + 1);
+        current = null;
+    }
+
+    // Consumer side, writer thread
+
+    private void run() {
+        while (running || head.get() != tail.get()) {
+            if (head.get() == tail.get()) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            long h = head.get();
+            write(chunks[(int) (h & (CAPACITY - 1))]);
+            head.lazySet(h + 1);
+        }
+        closeChannel();
+    }
+
+    private void write(Chunk chunk) {
+        try {
+            if (chunk.first) {
+                // Anything still open belongs to a run that was dropped part way
+                closeChannel();
+                channel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+                channel.position(HEADER_BYTES);
+            }
+            if (channel == null) return; // The start of this run failed or was dropped
+            chunk.data.flip();
+            while (chunk.data.hasRemaining()) {
+                channel.write(chunk.data);
+            }
+            if (chunk.last) {
+                header.clear();
+                header.putInt(MAGIC).putInt(chunk.records).putInt(chunk.score).putInt(0).flip();
+                channel.write(header, 0);
+                closeChannel();
+                if (chunk.score > bestScore) {
+                    save(chunk.score);
+                } else {
+                    Files.deleteIfExists(tempFile);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Ghost not saved: " + e.getMessage());
+            closeChannel();
+        }
+    }
+
+    private void save(int score) throws IOException {
+        Path previous = savedFile;
+        Path next = versionFile(version + 1);
+        Files.move(tempFile, next);
+        version++;
+        bestScore = score;
+        savedRuns++;
+        savedFile = next;
+        if (previous != null) {
+            deleteQuietly(previous);
+        }
+    }
+
+    private void closeChannel() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Nothing left to do with it
+        }
+        channel = null;
+    }
+
+    // Finds the newest saved ghost and clears out older ones left behind by earlier runs
+    private void loadBest() {
+        bestScore = -1;
+        Path dir = file.getParent();
+        String prefix = file.getFileName() + ".";
+        if (dir == null || !Files.isDirectory(dir)) return;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir, file.getFileName() + ".*")) {
+            for (Path entry : entries) {
+                String suffix = entry.getFileName().toString().substring(prefix.length());
+                if (!suffix.matches("\\d{1,9}")) continue;
+                int n = Integer.parseInt(suffix);
+                if (n > version) {
+                    if (savedFile != null) {
+                        deleteQuietly(savedFile);
+                    }
+                    version = n;
+                    savedFile = entry;
+                } else {
+                    deleteQuietly(entry);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Ghost run unavailable: " + e.getMessage());
+        }
+        if (savedFile != null) {
+            bestScore = readScore(savedFile);
+        }
+    }
+
+    private Path versionFile(int n) {
+        return file.resolveSibling(file.getFileName() + "." + n);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Still mapped somewhere; it goes on the next start
+        }
+    }
+
+    // Score of an existing ghost file, -1 if it isn't one
+    private static int readScore(Path path) {
+        try (FileChannel in = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES);
+            in.read(head, 0);
+            head.flip();
+            if (head.remaining() < HEADER_BYTES || head.getInt(0) != MAGIC) return -1;
+            return head.getInt(8);
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    public String report() {
+        return String.format("Ghost runs: %d saved, %d dropped -> %s", savedRuns, droppedRuns,
+            savedFile == null ? "none" : savedFile);
+    }
+}
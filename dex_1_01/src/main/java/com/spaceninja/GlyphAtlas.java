@@ -0,0 +1,99 @@
+package com.spaceninja;
+
+import java.util.Arrays;
+
+import javafx.geometry.Rectangle2D;
+import javafx.geometry.VPos;
+import javafx.scene.SnapshotParameters;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.Text;
+
+/**
+ * A fixed set of characters rasterized once into a single texture. BitmapText draws from it
+ * by pointing image views at glyph rectangles, so changing the text never lays out or
+ * rasterizes anything. Must be created on the FX thread.
+ */
+public class GlyphAtlas {
+
+    // Glyphs are drawn at twice their size, on a canvas twice as large, so they stay sharp
+    // when pulsed or scaled up
+    private static final double OVERSAMPLE = 2.0;
+    private static final double PADDING = 2;
+
+    private final Image image;
+    private final int[] indexByChar = new int[128]; // -1 when the character is not in the atlas
+    private final Rectangle2D[] viewports;
+    private final double[] advances;
+    private final double lineHeight;
+
+    public GlyphAtlas(Font font, Color color, String characters) {
+        int count = characters.length();
+        viewports = new Rectangle2D[count];
+        advances = new double[count];
+        Arrays.fill(indexByChar, -1);
+
+        // Measure every glyph once
+        Text measure = new Text();
+        measure.setFont(font);
+        double height = 0;
+        double totalWidth = 0;
+        for (int i = 0; i < count; i++) {
+            measure.setText(String.valueOf(characters.charAt(i)));
+            advances[i] = Math.ceil(measure.getLayoutBounds().getWidth());
+            height = Math.max(height, Math.ceil(measure.getLayoutBounds().getHeight()));
+            totalWidth += advances[i] + PADDING;
+        }
+        lineHeight = height;
+
+        // Draw them side by side, scaled up, and snapshot the strip into one image
+        Canvas canvas = new Canvas(Math.ceil(totalWidth * OVERSAMPLE), Math.ceil(lineHeight * OVERSAMPLE));
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.scale(OVERSAMPLE, OVERSAMPLE);
+        gc.setFont(font);
+        gc.setFill(color);
+        gc.setTextBaseline(VPos.TOP);
+        double x = 0;
+        for (int i = 0; i < count; i++) {
+            char c = characters.charAt(i);
+            gc.fillText(String.valueOf(c), x, 0);
+            viewports[i] = new Rectangle2D(x * OVERSAMPLE, 0, advances[i] * OVERSAMPLE, lineHeight * OVERSAMPLE);
+            if (c < indexByChar.length) {
+                indexByChar[c] = i;
+            }
+            x += advances[i] + PADDING;
+        }
+
+        SnapshotParameters params = new SnapshotParameters();
+        params.setFill(Color.TRANSPARENT);
+        image = canvas.snapshot(params, null);
+    }
+
+    Image getImage() {
+        return image;
+    }
+
+    int indexOf(char c) {
+        return c < indexByChar.length ? indexByChar[c] : -1;
+    }
+
+    Rectangle2D getViewport(int index) {
+        return viewports[index];
+    }
+
+    double getAdvance(int index) {
+        return advances[index];
+    }
+
+    double getLineHeight() {
+        return lineHeight;
+    }
+
+    // Width of a space or of a character the atlas doesn't have
+    double getSpaceAdvance() {
+        return advances.length > 0 ? advances[0] * 0.5 : 0;
+    }
+}
@@ -0,0 +1,263 @@
+package com.spaceninja;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Command-line options understood by SpaceNinjaApplication, in --name=value form.
+ */
+public class LaunchOptions {
+
+    // Number of game ticks the allocation check runs for, 0 when disabled
+    private int allocationCheckTicks = 0;
+    
+    // Play/die/restart cycles the soak test runs for, 0 when disabled
+    private int soakCycles = 0;
+    
+    // Stress test length in seconds, 0 when disabled, and the scene it runs against
+    private int stressSeconds = 0;
+    private int sticks = GameSimulation.DEFAULT_MAX_STICKS;
+    private int particlesPerStick = 0;
+    private int stars = StressConfig.DEFAULT_STARS;
+    private int waveLayers = StressConfig.DEFAULT_WAVE_LAYERS;
+    private int lanes = 1;
+    
+    // Internal render resolution relative to the 1200x800 game area
+    private double renderScale = 1.0;
+    
+    // Window mode, fixed size unless asked otherwise
+    private boolean resizable = false;
+    private boolean fullscreen = false;
+    
+    private boolean muted = false;
+    
+    // Blend rendering between simulation ticks
+    private boolean interpolation = true;
+    
+    // Game clock speed, and QA mode: the F key fast-forward and the exit reports
+    private double timeScale = 1.0;
+    private boolean qa = false;
+    
+    // Session telemetry log, disabled when no directory is given
+    private Path telemetryDirectory = null;
+    private long telemetryMaxBytes = 1024 * 1024;
+    private int telemetryFiles = 5;
+    
+    // Ghost run file, disabled when not given
+    private Path ghostFile = null;
+    
+    // PNG sequence capture, disabled when no directory is given
+    private Path captureDirectory = null;
+    private int captureInterval = 1;
+
+    public static LaunchOptions parse(List<String> args) {
+        LaunchOptions options = new LaunchOptions();
+
+        for (String arg : args) {
+            String name = arg;
+            String value = null;
+            int eq = arg.indexOf('=');
+            if (eq >= 0) {
+                name = arg.substring(0, eq);
+                value = arg.substring(eq + 1);
+            }
+
+            switch (name) {
+                case "--alloc-check":
+                    options.allocationCheckTicks = value == null
+                        ? AllocationCheck.DEFAULT_TICKS : parseAtLeast(name, value, AllocationCheck.MIN_TICKS);
+                    break;
+                case "--soak":
+                    options.soakCycles = value == null ? 2000 : parseAtLeast(name, value, SoakTest.MIN_CYCLES);
+                    break;
+                case "--stress":
+                    options.stressSeconds = value == null ? 30 : parseAtLeast(name, value, 1);
+                    break;
+                case "--sticks":
+                    options.sticks = parseAtLeast(name, value, 1);
+                    break;
+                case "--particles":
+                    options.particlesPerStick = parseAtLeast(name, value, 0);
+                    break;
+                case "--stars":
+                    options.stars = parseAtLeast(name, value, 0);
+                    break;
+                case "--wave-layers":
+                    options.waveLayers = parseAtLeast(name, value, 0);
+                    break;
+                case "--lanes":
+                    options.lanes = parseAtLeast(name, value, 1);
+                    break;
+                case "--render-scale":
+                    options.renderScale = parseDouble(name, value);
+                    if (options.renderScale <= 0 || options.renderScale > 1) {
+                        throw new IllegalArgumentException("--render-scale must be in (0, 1]: " + value);
+                    }
+                    break;
+                case "--resizable":
+                    options.resizable = true;
+                    break;
+                case "--fullscreen":
+                    options.fullscreen = true;
+                    break;
+                case "--no-interpolation":
+                    options.interpolation = false;
+                    break;
+                case "--time-scale":
+                    options.timeScale = parseDouble(name, value);
+                    if (options.timeScale <= 0 || options.timeScale > 16) {
+                        throw new IllegalArgumentException("--time-scale must be in (0, 16]: " + value);
+                    }
+                    break;
+                case "--qa":
+                    options.qa = true;
+                    break;
+                case "--mute":
+                    options.muted = true;
+                    break;
+                case "--telemetry":
+                    options.telemetryDirectory = Paths.get(value == null ? "telemetry" : value);
+                    break;
+                case "--telemetry-max-kb":
+                    options.telemetryMaxBytes = parseAtLeast(name, value, 1) * 1024L;
+                    break;
+                case "--telemetry-files":
+                    options.telemetryFiles = parseAtLeast(name, value, 1);
+                    break;
+                case "--ghost":
+                    options.ghostFile = Paths.get(value == null ? "ghost.run" : value);
+                    break;
+                case "--capture":
+                    options.captureDirectory = Paths.get(value == null ? "capture" : value);
+                    break;
+                case "--capture-every":
+                    options.captureInterval = parseInt(name, value);
+                    if (options.captureInterval < 1) {
+                        throw new IllegalArgumentException("--capture-every must be at least 1: " + value);
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        return options;
+    }
+
+    private static int parseInt(String name, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + name + ": " + value);
+        }
+    }
+
+    private static int parseAtLeast(String name, String value, int min) {
+        int parsed = parseInt(name, value);
+        if (parsed < min) {
+            throw new IllegalArgumentException(name + " must be at least " + min + ": " + value);
+        }
+        return parsed;
+    }
+
+    private static double parseDouble(String name, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid value for " + name + ": " + value);
+        }
+    }
+    
+    public boolean isAllocationCheck() {
+        return allocationCheckTicks > 0;
+    }
+
+    public int getAllocationCheckTicks() {
+        return allocationCheckTicks;
+    }
+    
+    public boolean isSoak() {
+        return soakCycles > 0;
+    }
+    
+    public int getSoakCycles() {
+        return soakCycles;
+    }
+    
+    public boolean isStress() {
+        return stressSeconds > 0;
+    }
+    
+    public int getStressSeconds() {
+        return stressSeconds;
+    }
+    
+    // Scene counts; also honored outside stress mode
+    public StressConfig getStressConfig() {
+        return new StressConfig(sticks, particlesPerStick, stars, waveLayers, lanes);
+    }
+    
+    public double getRenderScale() {
+        return renderScale;
+    }
+    
+    public boolean isResizable() {
+        return resizable;
+    }
+    
+    public boolean isFullscreen() {
+        return fullscreen;
+    }
+    
+    public boolean isInterpolation() {
+        return interpolation;
+    }
+    
+    public double getTimeScale() {
+        return timeScale;
+    }
+    
+    public boolean isQa() {
+        return qa;
+    }
+    
+    public boolean isMuted() {
+        return muted;
+    }
+    
+    public boolean isTelemetry() {
+        return telemetryDirectory != null;
+    }
+    
+    public Path getTelemetryDirectory() {
+        return telemetryDirectory;
+    }
+    
+    public long getTelemetryMaxBytes() {
+        return telemetryMaxBytes;
+    }
+    
+    public int getTelemetryFiles() {
+        return telemetryFiles;
+    }
+    
+    public boolean isGhost() {
+        return ghostFile != null;
+    }
+    
+    public Path getGhostFile() {
+        return ghostFile;
+    }
+    
+    public boolean isCapture() {
+        return captureDirectory != null;
+    }
+    
+    public Path getCaptureDirectory() {
+        return captureDirectory;
+    }
+    
+    public int getCaptureInterval() {
+        return captureInterval;
+    }
+}
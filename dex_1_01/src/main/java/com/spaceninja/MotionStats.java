@@ -0,0 +1,43 @@
+package com.spaceninja;
+
+/**
+ * Per-frame motion smoothness: how far each rendered frame's movement is from the ideal
+ * movement for the time that frame actually covered. Zero means perfectly even motion.
+ */
+public class MotionStats {
+
+    private final String label;
+    private long frames;
+    private double totalJitter;
+    private double sumSquares;
+    private double maxJitter;
+
+    public MotionStats(String label) {
+        this.label = label;
+    }
+
+    public void record(double actualDelta, double idealDelta) {
+        double jitter = Math.abs(actualDelta - idealDelta);
+        frames++;
+        totalJitter += jitter;
+        sumSquares += jitter * jitter;
+        if (jitter > maxJitter) maxJitter = jitter;
+    }
+
+    public void reset() {
+        frames = 0;
+        totalJitter = 0;
+        sumSquares = 0;
+        maxJitter = 0;
+    }
+
+    public double getAverageJitter() {
+        return frames == 0 ? 0 : totalJitter / frames;
+    }
+
+    public String summary() {
+        double rms = frames == 0 ? 0 : Math.sqrt(sumSquares / frames);
+        return String.format("%s: %d frames, jitter avg %.3f px, rms %.3f px, max %.3f px",
+            label, frames, getAverageJitter(), rms, maxJitter);
+    }
+}
@@ -0,0 +1,49 @@
+package com.spaceninja;
+
+/**
+ * Everything the renderer needs from one simulation tick. Instances are preallocated and
+ * reused through a TripleBuffer, so publishing a tick never allocates.
+ */
+public class RenderSnapshot {
+
+    int session;
+    long tick;
+    long simNanos;
+    long publishNanos; // System.nanoTime() when the tick was published
+    long tickNanos;    // Time the simulation spent computing this tick
+    long tickPeriodNanos; // Wall time between ticks at the time scale this tick ran at
+    double difficultyScale;
+    boolean gameOver;
+
+    int score;
+    long landings;
+    int ninjaColor;
+
+    // Positions at this tick and at the tick before, so the renderer can interpolate
+    double scroll;
+    double prevScroll;
+    double ninjaY;
+    double prevNinjaY;
+    double ninjaScaleY;
+    double prevNinjaScaleY;
+
+    int stickCount;
+    long firstStickId; // Stick ids minus this line up with the same sticks in a ghost run
+    final long[] stickIds;
+    final double[] stickX;
+    final double[] prevStickX;
+    final double[] stickY;
+    final int[] stickColors; // -1 while inactive
+    final int[] stickEffects;
+    final int[] stickSwitches;
+
+    RenderSnapshot(int maxSticks) {
+        stickIds = new long[maxSticks];
+        stickX = new double[maxSticks];
+        prevStickX = new double[maxSticks];
+        stickY = new double[maxSticks];
+        stickColors = new int[maxSticks];
+        stickEffects = new int[maxSticks];
+        stickSwitches = new int[maxSticks];
+    }
+}
@@ -0,0 +1,71 @@
+package com.spaceninja;
+
+import javafx.scene.Group;
+import javafx.scene.Node;
+import javafx.scene.SceneAntialiasing;
+import javafx.scene.SubScene;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
+import javafx.scene.paint.Color;
+import javafx.scene.shape.Rectangle;
+import javafx.scene.transform.Scale;
+
+/**
+ * Hosts the game at its fixed logical size and fits it into the window with letterboxing.
+ * With a render scale below 1 the game is drawn into a smaller SubScene, which JavaFX
+ * renders to its own texture, and that texture is then upscaled with filtering.
+ */
+public class ScaledViewport extends StackPane {
+
+    private final double logicalWidth;
+    private final double logicalHeight;
+    private final double renderScale;
+    private final Node view;
+
+    public ScaledViewport(Region content, double logicalWidth, double logicalHeight, double renderScale) {
+        this.logicalWidth = logicalWidth;
+        this.logicalHeight = logicalHeight;
+        this.renderScale = renderScale;
+
+        setStyle("-fx-background-color: black;");
+
+        // The game is laid out for a fixed size, keep it there whatever the window does
+        content.setMinSize(logicalWidth, logicalHeight);
+        content.setPrefSize(logicalWidth, logicalHeight);
+        content.setMaxSize(logicalWidth, logicalHeight);
+
+        if (renderScale < 1.0) {
+            Group scaledContent = new Group(content);
+            scaledContent.getTransforms().add(new Scale(renderScale, renderScale, 0, 0));
+
+            SubScene subScene = new SubScene(scaledContent,
+                Math.round(logicalWidth * renderScale), Math.round(logicalHeight * renderScale),
+                false, SceneAntialiasing.DISABLED);
+            subScene.setFill(Color.BLACK);
+            view = subScene;
+        } else {
+            // Native resolution, just clip to the game area so nothing leaks into the bars
+            content.setClip(new Rectangle(logicalWidth, logicalHeight));
+            view = new Group(content);
+        }
+
+        getChildren().add(view);
+    }
+
+    @Override
+    protected void layoutChildren() {
+        // Fit the game area into the window, keeping the aspect ratio.
+        // Scaling is about the centre of the view, so the stack pane's centring gives the letterbox.
+        double fit = Math.min(getWidth() / logicalWidth, getHeight() / logicalHeight);
+        if (fit > 0) {
+            double scale = fit / Math.min(renderScale, 1.0);
+            view.setScaleX(scale);
+            view.setScaleY(scale);
+        }
+        super.layoutChildren();
+    }
+
+    public double getRenderScale() {
+        return renderScale;
+    }
+}
@@ -0,0 +1,137 @@
+package com.spaceninja;
+
+/**
+ * Collects per-session numbers on the FX thread and hands them to the TelemetryWriter:
+ * a record when a session starts, a frame summary every minute and a record when it ends.
+ */
+public class SessionTelemetry {
+
+    private static final long SUMMARY_INTERVAL_NANOS = 60_000_000_000L;
+
+    private final TelemetryWriter writer;
+
+    private boolean active = false;
+    private int session;
+    private long startNanos;
+    private long windowStartNanos;
+    private long lastFrameNanos;
+    private long lastTick;
+    private long firstStickId;
+    private long lastStickId;
+    private long sessionInputs;
+    private long windowInputs;
+
+    // Whole session, and the current summary window
+    private final TimingStats sessionFrames = new TimingStats("Frame interval");
+    private final TimingStats sessionRender = new TimingStats("Render");
+    private final TimingStats sessionTicks = new TimingStats("Tick");
+    private final TimingStats windowFrames = new TimingStats("Frame interval");
+    private final TimingStats windowRender = new TimingStats("Render");
+    private final TimingStats windowTicks = new TimingStats("Tick");
+
+    public SessionTelemetry(TelemetryWriter writer) {
+        this.writer = writer;
+    }
+
+    public void sessionStarted(int session, long now) {
+        this.session = session;
+        active = true;
+        startNanos = now;
+        windowStartNanos = now;
+        lastFrameNanos = -1;
+        lastTick = -1;
+        firstStickId = -1;
+        lastStickId = -1;
+        sessionInputs = 0;
+        windowInputs = 0;
+        sessionFrames.reset();
+        sessionRender.reset();
+        sessionTicks.reset();
+        resetWindow(now);
+
+        TelemetryWriter.Record record = writer.claim(TelemetryWriter.Type.SESSION_START);
+        if (record != null) {
+            record.session = session;
+            writer.publish();
+        }
+    }
+
+    public void input() {
+        sessionInputs++;
+        windowInputs++;
+    }
+
+    public void frame(long now, long renderNanos, RenderSnapshot snapshot) {
+        if (!active) return;
+
+        if (lastFrameNanos >= 0) {
+            sessionFrames.record(now - lastFrameNanos);
+            windowFrames.record(now - lastFrameNanos);
+        }
+        lastFrameNanos = now;
+        sessionRender.record(renderNanos);
+        windowRender.record(renderNanos);
+
+        // Each simulation tick is counted once, however many frames show it
+        if (snapshot.tick != lastTick) {
+            lastTick = snapshot.tick;
+            sessionTicks.record(snapshot.tickNanos);
+            windowTicks.record(snapshot.tickNanos);
+        }
+        if (snapshot.stickCount > 0) {
+            if (firstStickId < 0) firstStickId = snapshot.stickIds[0];
+            lastStickId = snapshot.stickIds[snapshot.stickCount - 1];
+        }
+
+        if (now - windowStartNanos >= SUMMARY_INTERVAL_NANOS) {
+            TelemetryWriter.Record record = writer.claim(TelemetryWriter.Type.FRAME_SUMMARY);
+            if (record != null) {
+                record.session = session;
+                record.durationMillis = (now - windowStartNanos) / 1_000_000;
+                fillFrameFields(record, windowFrames, windowRender, windowTicks, windowInputs);
+                writer.publish();
+            }
+            resetWindow(now);
+        }
+    }
+
+    public void sessionEnded(String reason, int score, String grade, long landings, long now) {
+        if (!active) return;
+        active = false;
+
+        TelemetryWriter.Record record = writer.claim(TelemetryWriter.Type.SESSION_END);
+        if (record != null) {
+            record.session = session;
+            record.reason = reason;
+            record.durationMillis = (now - startNanos) / 1_000_000;
+            record.score = score;
+            record.grade = grade;
+            record.landings = landings;
+            record.sticks = firstStickId < 0 ? 0 : lastStickId - firstStickId + 1;
+            fillFrameFields(record, sessionFrames, sessionRender, sessionTicks, sessionInputs);
+            writer.publish();
+        }
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    private static void fillFrameFields(TelemetryWriter.Record record, TimingStats frames,
+                                        TimingStats render, TimingStats ticks, long inputs) {
+        record.frames = frames.getCount();
+        record.frameAvgMillis = frames.getAverageMillis();
+        record.frameMaxMillis = frames.getMaxMillis();
+        record.renderAvgMillis = render.getAverageMillis();
+        record.tickAvgMillis = ticks.getAverageMillis();
+        record.inputs = inputs;
+    }
+
+    private void resetWindow(long now) {
+        windowStartNanos = now;
+        windowInputs = 0;
+        windowFrames.reset();
+        windowRender.reset();
+        windowTicks.reset();
+    }
+}
@@ -0,0 +1,127 @@
+package com.spaceninja;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs the GameSimulation on its own thread at the fixed tick rate and publishes a
+ * RenderSnapshot after every tick. The game clock's time scale sets how much wall time a
+ * tick takes; the simulation itself always steps by the same fixed amount. A slow frame on
+ * the FX thread never delays the game rules; the renderer simply picks up the newest
+ * snapshot when it gets to it.
+ */
+public class SimulationThread {
+
+    private static final long MAX_CATCH_UP_NANOS = 250_000_000L; // Don't try to catch up after a stall
+
+    private final GameSimulation simulation;
+    private final GameClock clock;
+    private final TripleBuffer<RenderSnapshot> snapshots;
+    private final TimingStats tickStats = new TimingStats("Simulation tick");
+
+    // Session requested by the FX thread; the simulation resets itself when it changes
+    private final AtomicInteger requestedSession = new AtomicInteger();
+    private int session;
+
+    private volatile boolean alive;
+    private Thread thread;
+
+    public SimulationThread(GameSimulation simulation, GameClock clock) {
+        this.simulation = simulation;
+        this.clock = clock;
+        this.snapshots = new TripleBuffer<>(() -> new RenderSnapshot(simulation.getMaxSticks()));
+    }
+
+    public void start() {
+        alive = true;
+        thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY + 1);
+        thread.start();
+    }
+
+    public void shutdown() {
+        alive = false;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Starts a fresh game on the simulation thread. Snapshots carry the session number,
+    // so the renderer can ignore anything still in flight from the previous game.
+    public void startSession(int session) {
+        requestedSession.set(session);
+        LockSupport.unpark(thread);
+    }
+
+    public GameSimulation getSimulation() {
+        return simulation;
+    }
+
+    public RenderSnapshot latest() {
+        return snapshots.acquireLatest();
+    }
+
+    public TimingStats getTickStats() {
+        return tickStats;
+    }
+
+    private void run() {
+        long nextTick = System.nanoTime();
+
+        while (alive) {
+            int requested = requestedSession.get();
+            if (requested != session) {
+                session = requested;
+                simulation.reset(session);
+                publish(0, tickPeriod());
+                nextTick = System.nanoTime() + tickPeriod();
+                continue;
+            }
+
+            long now = System.nanoTime();
+            if (!simulation.isRunning()) {
+                LockSupport.parkNanos(GameSimulation.TICK_NANOS);
+                nextTick = now;
+                continue;
+            }
+            if (now < nextTick) {
+                LockSupport.parkNanos(nextTick - now);
+                continue;
+            }
+            if (now - nextTick > MAX_CATCH_UP_NANOS) {
+                nextTick = now;
+            }
+
+            long start = System.nanoTime();
+            simulation.step();
+            long took = System.nanoTime() - start;
+            tickStats.record(took);
+
+            long period = tickPeriod();
+            publish(took, period);
+            nextTick += period;
+        }
+        simulation.endRecording();
+    }
+
+    // More speed means more fixed ticks per second, never longer ones
+    private long tickPeriod() {
+        double scale = simulation.getDifficultyScale() * clock.getSpeedMultiplier();
+        return (long) (GameSimulation.TICK_NANOS / scale);
+    }
+
+    private void publish(long tickNanos, long tickPeriodNanos) {
+        RenderSnapshot snapshot = snapshots.getWriteBuffer();
+        simulation.writeSnapshot(snapshot);
+        snapshot.tickNanos = tickNanos;
+        snapshot.tickPeriodNanos = tickPeriodNanos;
+        snapshot.publishNanos = System.nanoTime();
+        snapshots.publish();
+    }
+}
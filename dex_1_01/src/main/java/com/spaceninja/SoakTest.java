@@ -0,0 +1,210 @@
+package com.spaceninja;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.Random;
+
+import javafx.animation.AnimationTimer;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+
+/**
+ * Plays, dies and restarts the game over and over at fast-forward speed, sampling heap,
+ * scene graph size, running animations and frame time. When the run is done each metric's
+ * trend is fitted over the samples after warmup; any that grows by more than its threshold
+ * across the run fails the test. Run it under Monocle to go headless.
+ */
+public class SoakTest {
+
+    private static final int SAMPLE_EVERY = 20;       // Cycles between samples
+    private static final double WARMUP_FRACTION = 0.25; // Samples ignored while caches fill
+    private static final int MIN_TREND_SAMPLES = 5;   // Fewer after warmup can't show a trend
+    private static final int HEAP_READINGS = 3;       // Collections per heap sample, lowest wins
+
+    // Shortest run that still has enough samples after warmup
+    public static final int MIN_CYCLES = minCycles();
+
+    // Allowed growth across the run, relative to the average
+    private enum Metric {
+        HEAP("Heap used (KB)", 0.15),
+        NODES("Scene graph nodes", 0.05),
+        ANIMATIONS("Running animations", 0.05),
+        FRAME("Frame time (ms)", 0.20);
+
+        private final String label;
+        private final double maxGrowth;
+
+        Metric(String label, double maxGrowth) {
+            this.label = label;
+            this.maxGrowth = maxGrowth;
+        }
+    }
+
+    private final GameController gameController;
+    private final int cycles;
+    private final double[][] samples;
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final TimingStats frameStats = new TimingStats("Soak frame");
+    private final Random random = new Random(42);
+
+    private int sampleCount = 0;
+    private int completedCycles = 0;
+    private boolean started = false;
+    private boolean endRequested = false;
+    private long landingsToPlay;
+    private long frames = 0;
+    private long lastFrameNanos = -1;
+    private Runnable onFinished;
+
+    public SoakTest(GameController gameController, int cycles) {
+        if (cycles < MIN_CYCLES) {
+            throw new IllegalArgumentException("Soak test needs at least " + MIN_CYCLES + " cycles: " + cycles);
+        }
+        this.gameController = gameController;
+        this.cycles = cycles;
+        this.samples = new double[Metric.values().length][cycles / SAMPLE_EVERY + 1];
+    }
+
+    public void start(Runnable onFinished) {
+        this.onFinished = onFinished;
+        gameController.getClock().setFastForward(true);
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (lastFrameNanos >= 0) {
+                    frameStats.record(now - lastFrameNanos);
+                }
+                lastFrameNanos = now;
+
+                if (!started) {
+                    started = true;
+                    restart();
+                } else if (gameController.isGameRunning()) {
+                    play();
+                } else {
+                    // Died: count the cycle, sample now and then, go again
+                    completedCycles++;
+                    if (completedCycles % SAMPLE_EVERY == 0) {
+                        sample();
+                    }
+                    if (completedCycles >= cycles) {
+                        stop();
+                        onFinished.run();
+                        return;
+                    }
+                    restart();
+                }
+            }
+        }.start();
+    }
+
+    private void restart() {
+        endRequested = false;
+        landingsToPlay = 2 + random.nextInt(4);
+        gameController.startGame();
+    }
+
+    private void play() {
+        // Tap roughly three times a second at normal speed, then die after a few jumps
+        if (++frames % 20 == 0) {
+            gameController.switchColor();
+        }
+        if (!endRequested && gameController.getLandings() >= landingsToPlay) {
+            endRequested = true;
+            gameController.endGame();
+        }
+    }
+
+    private void sample() {
+        if (sampleCount >= samples[0].length) return;
+        samples[Metric.HEAP.ordinal()][sampleCount] = heapAfterGc() / 1024.0;
+        samples[Metric.NODES.ordinal()][sampleCount] = countNodes(gameController.getRoot());
+        samples[Metric.ANIMATIONS.ordinal()][sampleCount] = gameController.getClock().getRunningCount();
+        samples[Metric.FRAME.ordinal()][sampleCount] = frameStats.getAverageMillis();
+        sampleCount++;
+        frameStats.reset();
+        // The collection above shouldn't count against the next window
+        lastFrameNanos = -1;
+    }
+
+    // One collection can leave garbage behind (a concurrent cycle, a survivor space still full),
+    // so collect a few times and keep the lowest reading as the live heap
+    private long heapAfterGc() {
+        long lowest = Long.MAX_VALUE;
+        for (int i = 0; i < HEAP_READINGS; i++) {
+            System.gc();
+            lowest = Math.min(lowest, memory.getHeapMemoryUsage().getUsed());
+        }
+        return lowest;
+    }
+
+    private static int countNodes(Node node) {
+        int count = 1;
+        if (node instanceof Parent) {
+            for (Node child : ((Parent) node).getChildrenUnmodifiable()) {
+                count += countNodes(child);
+            }
+        }
+        return count;
+    }
+
+    public boolean isPassed() {
+        if (trendSamples() < MIN_TREND_SAMPLES) return false;
+        for (Metric metric : Metric.values()) {
+            if (growth(metric) > metric.maxGrowth) return false;
+        }
+        return true;
+    }
+
+    private int trendSamples() {
+        return sampleCount - (int) (sampleCount * WARMUP_FRACTION);
+    }
+
+    private static int minCycles() {
+        int count = 1;
+        while (count - (int) (count * WARMUP_FRACTION) < MIN_TREND_SAMPLES) {
+            count++;
+        }
+        return count * SAMPLE_EVERY;
+    }
+
+    // Fitted change from the first to the last sample after warmup, relative to the average
+    private double growth(Metric metric) {
+        double[] values = samples[metric.ordinal()];
+        int from = (int) (sampleCount * WARMUP_FRACTION);
+        int n = sampleCount - from;
+        if (n < 2) return 0;
+
+        double meanX = 0, meanY = 0;
+        for (int i = from; i < sampleCount; i++) {
+            meanX += i;
+            meanY += values[i];
+        }
+        meanX /= n;
+        meanY /= n;
+        double covariance = 0, variance = 0;
+        for (int i = from; i < sampleCount; i++) {
+            covariance += (i - meanX) * (values[i] - meanY);
+            variance += (i - meanX) * (i - meanX);
+        }
+        if (meanY <= 0) return 0;
+        double slope = covariance / variance;
+        return slope * (n - 1) / meanY;
+    }
+
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Soak test: %d cycles, %d samples, %d after warmup%s%n", completedCycles,
+            sampleCount, trendSamples(), trendSamples() < MIN_TREND_SAMPLES ? "  TOO FEW" : ""));
+        for (Metric metric : Metric.values()) {
+            double[] values = samples[metric.ordinal()];
+            double first = sampleCount > 0 ? values[(int) (sampleCount * WARMUP_FRACTION)] : 0;
+            double last = sampleCount > 0 ? values[sampleCount - 1] : 0;
+            double growth = growth(metric);
+            sb.append(String.format("  %-20s first %10.1f  last %10.1f  trend %+6.1f%% (limit %.0f%%)%s%n",
+                metric.label, first, last, growth * 100, metric.maxGrowth * 100,
+                growth > metric.maxGrowth ? "  OVER" : ""));
+        }
+        return sb.toString();
+    }
+}
@@ -1,6 +1,10 @@
 package com.spaceninja;
 
+import java.io.IOException;
+import java.util.List;
+
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.input.KeyCode;
 import javafx.stage.Stage;
@@ -8,13 +12,34 @@ import javafx.stage.Stage;
 public class SpaceNinjaApplication extends Application {
 
     private GameController gameController;
+    private LaunchOptions options;
+    private FrameCapture frameCapture;
 
     @Override
     public void start(Stage primaryStage) {
+        options = LaunchOptions.parse(getParameters().getRaw());
+        
         primaryStage.setTitle("Space Ninja");
         primaryStage.getIcons().add(new javafx.scene.image.Image(getClass().getResourceAsStream("/icons/icon.png")));
-        gameController = new GameController();
-        Scene scene = new Scene(gameController.getRoot(), 1200, 800);
+        AudioService audioService = new AudioService(!options.isMuted());
+        audioService.start();
+        TelemetryWriter telemetryWriter = options.isTelemetry()
+            ? new TelemetryWriter(options.getTelemetryDirectory(), options.getTelemetryMaxBytes(), options.getTelemetryFiles())
+            : TelemetryWriter.disabled();
+        try {
+            telemetryWriter.start();
+        } catch (IOException e) {
+            System.err.println("Telemetry disabled: " + e.getMessage());
+        }
+        gameController = new GameController(new GameClock(options.getTimeScale()), options.getStressConfig(),
+            new AllocationMonitor(false), audioService, telemetryWriter);
+        gameController.setInterpolationEnabled(options.isInterpolation());
+        if (options.isGhost()) {
+            gameController.enableGhostRun(new GhostRecorder(options.getGhostFile()));
+        }
+        ScaledViewport viewport = new ScaledViewport(gameController.getRoot(),
+            GameController.SCENE_WIDTH, GameController.SCENE_HEIGHT, options.getRenderScale());
+        Scene scene = new Scene(viewport, GameController.SCENE_WIDTH, GameController.SCENE_HEIGHT);
         
         // Add key event handling for color switching
         scene.setOnKeyPressed(event -> {
@@ -22,6 +47,10 @@ public class SpaceNinjaApplication extends Application {
                 gameController.switchColor();
             } else if (event.getCode() == KeyCode.ENTER && !gameController.isGameRunning()) {
                 gameController.startGame();
+            } else if (event.getCode() == KeyCode.F && options.isQa()) {
+                // Fast-forward everything together, for playing through long sessions quickly
+                GameClock clock = gameController.getClock();
+                clock.setFastForward(!clock.isFastForward());
             }
         });
         
@@ -34,7 +63,8 @@ public class SpaceNinjaApplication extends Application {
         });
         
         primaryStage.setScene(scene);
-        primaryStage.setResizable(false);
+        primaryStage.setResizable(options.isResizable() || options.isFullscreen());
+        primaryStage.setFullScreen(options.isFullscreen());
         primaryStage.show();
         
         // Request focus for key events
@@ -42,9 +72,84 @@ public class SpaceNinjaApplication extends Application {
         
         // Initialize the game
         gameController.initializeGame();
+        
+        if (options.isSoak()) {
+            runSoakTest();
+        } else if (options.isStress()) {
+            runStressTest();
+        }
+        if (options.isCapture()) {
+            startCapture();
+        }
+    }
+    
+    private void startCapture() {
+        int workers = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        frameCapture = new FrameCapture(gameController.getRoot(), options.getCaptureDirectory(),
+            options.getCaptureInterval(), (int) GameController.SCENE_WIDTH, (int) GameController.SCENE_HEIGHT, workers);
+        try {
+            frameCapture.start();
+        } catch (IOException e) {
+            System.err.println("Frame capture disabled: " + e.getMessage());
+            frameCapture = null;
+        }
+    }
+    
+    @Override
+    public void stop() {
+        if (frameCapture != null) {
+            frameCapture.stop();
+        }
+        if (gameController != null) {
+            gameController.shutdown();
+            gameController.getAudioService().stop();
+            if (options.isQa()) {
+                printReports();
+            }
+        }
+    }
+    
+    // Diagnostics for QA runs; a normal exit stays quiet
+    private void printReports() {
+        if (frameCapture != null) {
+            System.out.println(frameCapture.report());
+        }
+        System.out.println(gameController.timingReport());
+        System.out.println(gameController.getTelemetryWriter().report());
+        if (gameController.getGhostRecorder() != null) {
+            System.out.println(gameController.getGhostRecorder().report());
+        }
+        System.out.println(gameController.getAudioService().report());
+    }
+    
+    private void runSoakTest() {
+        // Die and restart until the cycle count is reached, exit non-zero on any upward trend
+        SoakTest soakTest = new SoakTest(gameController, options.getSoakCycles());
+        soakTest.start(() -> {
+            gameController.shutdown();
+            System.out.print(soakTest.report());
+            boolean passed = soakTest.isPassed();
+            System.out.println(passed ? "Soak test passed" : "Soak test FAILED");
+            Platform.exit();
+            System.exit(passed ? 0 : 1);
+        });
+    }
+
+    private void runStressTest() {
+        // Play the scripted timeline against the scaled-up scene and print frame times
+        StressTest stressTest = new StressTest(gameController, options.getStressConfig(), options.getStressSeconds());
+        stressTest.start(() -> {
+            System.out.print(stressTest.report());
+            Platform.exit();
+        });
     }
 
     public static void main(String[] args) {
+        // The allocation check plays the simulation alone and never starts the toolkit
+        LaunchOptions options = LaunchOptions.parse(List.of(args));
+        if (options.isAllocationCheck()) {
+            System.exit(AllocationCheck.runCheck(options.getAllocationCheckTicks()));
+        }
         launch(args);
     }
 }
@@ -1,5 +1,7 @@
 package com.spaceninja;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 import javafx.animation.KeyFrame;
@@ -13,6 +15,10 @@ import javafx.scene.shape.Circle;
 import javafx.scene.shape.Rectangle;
 import javafx.util.Duration;
 
+/**
+ * The on-screen view of one stick. The game rules live in GameSimulation; this class only
+ * shows what the latest RenderSnapshot says about the stick with the same id.
+ */
 public class Stick {
     
     private static final Color[] GAME_COLORS = {
@@ -20,24 +26,49 @@ public class Stick {
         Color.web("#009c46"), // Green  
         Color.web("#0079c9")  // Blue
     };
+    private static final Color INACTIVE_COLOR = Color.web("#CDB8E6").deriveColor(0, 1, 1, 0.8);
+    private static final Glow ACTIVE_GLOW = new Glow(0.8);
+    
+    // Particle colors, before the first switch and for each game color
+    private static final Color BUBBLE_FILL = Color.WHITE.deriveColor(0, 1, 1, 0.3);
+    private static final Color BUBBLE_STROKE = Color.WHITE.deriveColor(0, 1, 1, 0.5);
+    private static final Color TRIANGLE_FILL = Color.YELLOW.deriveColor(0, 1, 1, 0.6);
+    private static final Color BLOCK_FILL = Color.CYAN.deriveColor(0, 1, 1, 0.7);
+    private static final Color[] ACTIVE_BUBBLE_FILLS = deriveAll(0.3);
+    private static final Color[] ACTIVE_SHAPE_COLORS = deriveAll(0.6); // Bubble strokes, shape fills
+    private static final double GHOST_CAP_HEIGHT = 12;
     
     private static final double STICK_WIDTH = 90;  // Match original width
     private static final double STICK_HEIGHT = 362; // Match original height
     
     private Group stickNode;
     private Rectangle stickBody;
-    private int colorIndex;
+    private DropShadow shadow;
+    private Rectangle ghostCap; // The ghost run's color for this stick, shown above it
+    private int ghostColorIndex = -1;
+    private long id;
+    private final int effectType;
+    private int colorIndex = -1; // Inactive
+    private int switches = 0;    // Switches already shown
     private double x, y;
     private Random random = new Random();
     private Group effectsGroup;
+    private final GameClock clock;
+    private final ViewSync viewSync; // Every change after the stick is built goes through it
+    private final List<Timeline> particleAnimations = new ArrayList<>();
+    private Timeline colorAnimation; // Reused for every switch
     
-    public Stick(double x, double y) {
+    // particleCount of 0 or less uses the effect's own count
+    public Stick(long id, double x, double y, int effectType, int particleCount, GameClock clock, ViewSync viewSync) {
+        this.id = id;
+        this.effectType = effectType;
+        this.clock = clock;
+        this.viewSync = viewSync;
         this.x = x;
         this.y = y;
-        this.colorIndex = 0; // Start with red (inactive)
         
         createStick();
-        createEffects();
+        createEffects(effectType, particleCount);
     }
     
     private void createStick() {
@@ -45,7 +76,7 @@ public class Stick {
         
         // Main stick body with rounded corners like original
         stickBody = new Rectangle(STICK_WIDTH, STICK_HEIGHT);
-        stickBody.setFill(Color.web("#CDB8E6").deriveColor(0, 1, 1, 0.8)); // Inactive color matching original
+        stickBody.setFill(INACTIVE_COLOR); // Inactive color matching original
         stickBody.setStroke(Color.BLACK);
         stickBody.setStrokeWidth(1);
         stickBody.setArcWidth(14); // Match original border-radius
@@ -55,43 +86,47 @@ public class Stick {
         stickBody.setStyle("-fx-fill: rgba(205, 184, 230, 0.8);");
         
         // Add shadow effect
-        DropShadow shadow = new DropShadow();
+        shadow = new DropShadow();
         shadow.setOffsetY(3);
         shadow.setOffsetX(2);
         shadow.setColor(Color.BLACK.deriveColor(0, 1, 1, 0.3));
         stickBody.setEffect(shadow);
         
-        stickNode.getChildren().add(stickBody);
+        ghostCap = new Rectangle(STICK_WIDTH, GHOST_CAP_HEIGHT);
+        ghostCap.setArcWidth(GHOST_CAP_HEIGHT);
+        ghostCap.setArcHeight(GHOST_CAP_HEIGHT);
+        ghostCap.setLayoutY(-GHOST_CAP_HEIGHT - 6);
+        ghostCap.setOpacity(0.5);
+        ghostCap.setVisible(false);
+        
+        stickNode.getChildren().addAll(stickBody, ghostCap);
         stickNode.setLayoutX(x);
         stickNode.setLayoutY(y);
     }
     
-    private void createEffects() {
+    private void createEffects(int effectType, int particleCount) {
         effectsGroup = new Group();
         
-        // Create particle effects for the stick
-        int effectType = random.nextInt(3); // 0: bubbles, 1: triangles, 2: blocks
-        
+        // Create particle effects for the stick, 0: bubbles, 1: triangles, 2: blocks
         switch (effectType) {
             case 0:
-                createBubbleEffects();
+                createBubbleEffects(particleCount > 0 ? particleCount : 12);
                 break;
             case 1:
-                createTriangleEffects();
+                createTriangleEffects(particleCount > 0 ? particleCount : 10);
                 break;
             case 2:
-                createBlockEffects();
+                createBlockEffects(particleCount > 0 ? particleCount : 8);
                 break;
         }
         
         stickNode.getChildren().add(effectsGroup);
     }
     
-    private void createBubbleEffects() {
-        for (int i = 0; i < 12; i++) {
-            Circle bubble = new Circle(random.nextDouble() * 15 + 5, 
-                                     Color.WHITE.deriveColor(0, 1, 1, 0.3));
-            bubble.setStroke(Color.WHITE.deriveColor(0, 1, 1, 0.5));
+    private void createBubbleEffects(int count) {
+        for (int i = 0; i < count; i++) {
+            Circle bubble = new Circle(random.nextDouble() * 15 + 5, BUBBLE_FILL);
+            bubble.setStroke(BUBBLE_STROKE);
             bubble.setStrokeWidth(2);
             
             double bubbleX = random.nextDouble() * STICK_WIDTH;
@@ -113,17 +148,17 @@ public class Stick {
             );
             bubbleAnimation.setAutoReverse(true);
             bubbleAnimation.setCycleCount(Timeline.INDEFINITE);
-            bubbleAnimation.play();
+            startParticleAnimation(bubbleAnimation);
             
             effectsGroup.getChildren().add(bubble);
         }
     }
     
-    private void createTriangleEffects() {
-        for (int i = 0; i < 10; i++) {
+    private void createTriangleEffects(int count) {
+        for (int i = 0; i < count; i++) {
             // Create triangle using polygon approximation with rectangles
             Rectangle triangle = new Rectangle(8, 8);
-            triangle.setFill(Color.YELLOW.deriveColor(0, 1, 1, 0.6));
+            triangle.setFill(TRIANGLE_FILL);
             triangle.setRotate(45);
             
             double triX = random.nextDouble() * STICK_WIDTH;
@@ -138,15 +173,15 @@ public class Stick {
                 new KeyFrame(Duration.seconds(2), new KeyValue(triangle.rotateProperty(), 360))
             );
             triangleAnimation.setCycleCount(Timeline.INDEFINITE);
-            triangleAnimation.play();
+            startParticleAnimation(triangleAnimation);
             
             effectsGroup.getChildren().add(triangle);
         }
     }
     
-    private void createBlockEffects() {
-        for (int i = 0; i < 8; i++) {
-            Rectangle block = new Rectangle(12, 12, Color.CYAN.deriveColor(0, 1, 1, 0.7));
+    private void createBlockEffects(int count) {
+        for (int i = 0; i < count; i++) {
+            Rectangle block = new Rectangle(12, 12, BLOCK_FILL);
             block.setStroke(Color.WHITE);
             block.setStrokeWidth(1);
             
@@ -164,58 +199,128 @@ public class Stick {
             );
             blockAnimation.setAutoReverse(true);
             blockAnimation.setCycleCount(Timeline.INDEFINITE);
-            blockAnimation.play();
+            startParticleAnimation(blockAnimation);
             
             effectsGroup.getChildren().add(block);
         }
     }
     
-    public void switchColor() {
-        // Cycle through colors: gray -> red -> green -> blue -> red -> ...
-        if (stickBody.getFill() == Color.GRAY) {
-            // First activation - go to red
-            colorIndex = 0;
-        } else {
-            // Cycle through active colors
-            colorIndex = (colorIndex + 1) % GAME_COLORS.length;
-        }
+    private void startParticleAnimation(Timeline animation) {
+        // Particles run on the game clock so they speed up with everything else
+        particleAnimations.add(animation);
+        clock.register(animation);
+        animation.play();
+    }
+    
+    public void showColor(int colorIndex, int switches) {
+        // Only react to switches we haven't shown yet
+        if (switches == this.switches || colorIndex < 0) return;
+        this.switches = switches;
+        this.colorIndex = colorIndex;
         
-        stickBody.setFill(GAME_COLORS[colorIndex]);
+        viewSync.fill(stickBody, GAME_COLORS[colorIndex]);
         
         // Add glow effect when active
-        Glow glow = new Glow(0.8);
-        stickBody.setEffect(glow);
+        viewSync.effect(stickBody, ACTIVE_GLOW);
         
         // Color change animation
-        Timeline colorAnimation = new Timeline(
-            new KeyFrame(Duration.ZERO, new KeyValue(stickNode.scaleXProperty(), 1.0)),
-            new KeyFrame(Duration.millis(100), new KeyValue(stickNode.scaleXProperty(), 1.1)),
-            new KeyFrame(Duration.millis(200), new KeyValue(stickNode.scaleXProperty(), 1.0))
-        );
-        colorAnimation.play();
+        if (colorAnimation == null) {
+            colorAnimation = new Timeline(
+                new KeyFrame(Duration.ZERO, new KeyValue(stickNode.scaleXProperty(), 1.0)),
+                new KeyFrame(Duration.millis(100), new KeyValue(stickNode.scaleXProperty(), 1.1)),
+                new KeyFrame(Duration.millis(200), new KeyValue(stickNode.scaleXProperty(), 1.0))
+            );
+        }
+        clock.play(colorAnimation);
         
         // Update effect colors based on stick color
         updateEffectColors();
     }
     
+    public void showGhostColor(int colorIndex) {
+        if (colorIndex == ghostColorIndex) return;
+        ghostColorIndex = colorIndex;
+        if (colorIndex >= 0) {
+            viewSync.fill(ghostCap, GAME_COLORS[colorIndex]);
+        }
+        viewSync.visible(ghostCap, colorIndex >= 0);
+    }
+    
     private void updateEffectColors() {
-        Color currentColor = GAME_COLORS[colorIndex];
-        
         for (var node : effectsGroup.getChildren()) {
             if (node instanceof Circle) {
                 Circle circle = (Circle) node;
-                circle.setFill(currentColor.deriveColor(0, 1, 1, 0.3));
-                circle.setStroke(currentColor.deriveColor(0, 1, 1, 0.6));
+                viewSync.fill(circle, ACTIVE_BUBBLE_FILLS[colorIndex]);
+                viewSync.stroke(circle, ACTIVE_SHAPE_COLORS[colorIndex]);
             } else if (node instanceof Rectangle) {
                 Rectangle rect = (Rectangle) node;
-                rect.setFill(currentColor.deriveColor(0, 1, 1, 0.6));
+                viewSync.fill(rect, ACTIVE_SHAPE_COLORS[colorIndex]);
             }
         }
     }
     
-    public void moveLeft(double speed) {
-        x -= speed;
-        stickNode.setLayoutX(x);
+    private void resetEffectColors() {
+        for (var node : effectsGroup.getChildren()) {
+            if (node instanceof Circle) {
+                Circle circle = (Circle) node;
+                viewSync.fill(circle, BUBBLE_FILL);
+                viewSync.stroke(circle, BUBBLE_STROKE);
+            } else if (node instanceof Rectangle) {
+                Rectangle rect = (Rectangle) node;
+                viewSync.fill(rect, effectType == 1 ? TRIANGLE_FILL : BLOCK_FILL);
+            }
+        }
+    }
+    
+    private static Color[] deriveAll(double opacity) {
+        Color[] colors = new Color[GAME_COLORS.length];
+        for (int i = 0; i < colors.length; i++) {
+            colors[i] = GAME_COLORS[i].deriveColor(0, 1, 1, opacity);
+        }
+        return colors;
+    }
+    
+    // The stick has left the screen: hide it and pause its particles until it's reused
+    public void park() {
+        viewSync.visible(stickNode, false);
+        for (int i = 0; i < particleAnimations.size(); i++) {
+            particleAnimations.get(i).pause();
+        }
+        if (colorAnimation != null) {
+            colorAnimation.stop();
+        }
+    }
+    
+    // Turns a parked stick into a fresh inactive one, without creating any nodes
+    public void reuse(long id, double x, double y) {
+        this.id = id;
+        this.y = y;
+        colorIndex = -1;
+        switches = 0;
+        viewSync.fill(stickBody, INACTIVE_COLOR);
+        viewSync.effect(stickBody, shadow);
+        viewSync.scaleX(stickNode, 1.0);
+        viewSync.layoutY(stickNode, y);
+        setX(x);
+        resetEffectColors();
+        showGhostColor(-1);
+        for (int i = 0; i < particleAnimations.size(); i++) {
+            particleAnimations.get(i).play();
+        }
+        viewSync.visible(stickNode, true);
+    }
+    
+    public void setX(double x) {
+        this.x = x;
+        viewSync.layoutX(stickNode, x);
+    }
+    
+    public int getEffectType() {
+        return effectType;
+    }
+    
+    public long getId() {
+        return id;
     }
     
     public double getX() {
@@ -228,16 +333,7 @@ public class Stick {
     
     public int getColorIndex() {
         // Return -1 if stick is inactive (purple-gray), otherwise return color index
-        Color currentFill = (Color) stickBody.getFill();
-        Color inactiveColor = Color.web("#CDB8E6").deriveColor(0, 1, 1, 0.8);
-        
-        // Check if current color matches any of the game colors
-        for (int i = 0; i < GAME_COLORS.length; i++) {
-            if (currentFill.equals(GAME_COLORS[i])) {
-                return i;
-            }
-        }
-        return -1; // Inactive
+        return colorIndex;
     }
     
     public Group getNode() {
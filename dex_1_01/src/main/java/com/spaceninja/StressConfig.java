@@ -0,0 +1,62 @@
+package com.spaceninja;
+
+/**
+ * How much the game puts on screen: sticks on the track, particles per stick, stars, wave
+ * layers and ninja lanes. The defaults are the normal game; the stress mode raises them
+ * to find where each rendering path stops keeping up.
+ *
+ * Sticks keep the game's fixed spacing, so the default already fills the viewport and extra
+ * ones queue up past the right edge, where they are culled. Raising the stick count grows
+ * simulation, snapshot and sync work, not drawing. Wave layers count the surface wave: N
+ * layers are N - 1 repeating waves plus the surface.
+ */
+public class StressConfig {
+
+    public static final int DEFAULT_STARS = 100;
+    public static final int DEFAULT_WAVE_LAYERS = 5;
+
+    private final int sticks;
+    private final int particlesPerStick; // 0 keeps each effect's own count
+    private final int stars;
+    private final int waveLayers;
+    private final int lanes;
+
+    public StressConfig(int sticks, int particlesPerStick, int stars, int waveLayers, int lanes) {
+        this.sticks = sticks;
+        this.particlesPerStick = particlesPerStick;
+        this.stars = stars;
+        this.waveLayers = waveLayers;
+        this.lanes = lanes;
+    }
+
+    public static StressConfig defaults() {
+        return new StressConfig(GameSimulation.DEFAULT_MAX_STICKS, 0, DEFAULT_STARS, DEFAULT_WAVE_LAYERS, 1);
+    }
+
+    public int getSticks() {
+        return sticks;
+    }
+
+    public int getParticlesPerStick() {
+        return particlesPerStick;
+    }
+
+    public int getStars() {
+        return stars;
+    }
+
+    public int getWaveLayers() {
+        return waveLayers;
+    }
+
+    public int getLanes() {
+        return lanes;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("trackSticks=%d (off-screen culled) particles=%s stars=%d waveLayers=%d lanes=%d",
+            sticks, particlesPerStick > 0 ? String.valueOf(particlesPerStick) : "default",
+            stars, waveLayers, lanes);
+    }
+}
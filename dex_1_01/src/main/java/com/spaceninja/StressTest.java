@@ -0,0 +1,135 @@
+package com.spaceninja;
+
+import java.util.Arrays;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * Runs a fixed script against a scene scaled up by StressConfig and reports frame times per
+ * phase: steady play, a burst of color switches, then restarts every two seconds. Frame
+ * intervals come from the pulse timestamps, render times from the controller's own stats.
+ */
+public class StressTest {
+
+    private static final long WARMUP_NANOS = 3_000_000_000L;
+    private static final long RESTART_EVERY_NANOS = 2_000_000_000L;
+    private static final int MAX_FRAMES_PER_SECOND = 500; // Sizes the sample buffers
+
+    private enum Phase {
+        STEADY("Steady play", 20),
+        BURST("Switch burst", 3),
+        RESTARTS("Restarts", 20);
+
+        private final String label;
+        private final int tapEveryFrames;
+
+        Phase(String label, int tapEveryFrames) {
+            this.label = label;
+            this.tapEveryFrames = tapEveryFrames;
+        }
+    }
+
+    private final GameController gameController;
+    private final StressConfig config;
+    private final long phaseNanos;
+    private final long[][] frameIntervals;
+    private final int[] frameCounts = new int[Phase.values().length];
+    private final double[] renderAvgMillis = new double[Phase.values().length];
+    private final double[] renderMaxMillis = new double[Phase.values().length];
+
+    private long startNanos = -1;
+    private long lastFrameNanos = -1;
+    private long lastRestartNanos;
+    private long frames = 0;
+    private int phase = -1;
+
+    public StressTest(GameController gameController, StressConfig config, int seconds) {
+        this.gameController = gameController;
+        this.config = config;
+        this.phaseNanos = seconds * 1_000_000_000L / Phase.values().length;
+        int capacity = (int) (phaseNanos / 1_000_000_000L + 1) * MAX_FRAMES_PER_SECOND;
+        this.frameIntervals = new long[Phase.values().length][capacity];
+    }
+
+    public void start(Runnable onFinished) {
+        gameController.startGame();
+        new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                if (startNanos < 0) {
+                    startNanos = now;
+                }
+                long elapsed = now - startNanos - WARMUP_NANOS;
+                int current = elapsed < 0 ? -1 : (int) (elapsed / phaseNanos);
+                if (current != phase) {
+                    finishPhase();
+                    phase = current;
+                    if (phase >= Phase.values().length) {
+                        stop();
+                        onFinished.run();
+                        return;
+                    }
+                    gameController.getRenderStats().reset();
+                    lastRestartNanos = now;
+                } else if (phase >= 0 && lastFrameNanos >= 0) {
+                    int i = frameCounts[phase];
+                    if (i < frameIntervals[phase].length) {
+                        frameIntervals[phase][i] = now - lastFrameNanos;
+                        frameCounts[phase]++;
+                    }
+                }
+                lastFrameNanos = now;
+                script(now);
+            }
+        }.start();
+    }
+
+    private void script(long now) {
+        Phase current = phase >= 0 ? Phase.values()[phase] : Phase.STEADY;
+        if (current == Phase.RESTARTS && now - lastRestartNanos >= RESTART_EVERY_NANOS) {
+            lastRestartNanos = now;
+            gameController.startGame();
+        } else if (!gameController.isGameRunning()) {
+            gameController.startGame();
+        }
+        if (++frames % current.tapEveryFrames == 0) {
+            gameController.switchColor();
+        }
+    }
+
+    private void finishPhase() {
+        if (phase < 0 || phase >= Phase.values().length) return;
+        TimingStats renderStats = gameController.getRenderStats();
+        renderAvgMillis[phase] = renderStats.getAverageMillis();
+        renderMaxMillis[phase] = renderStats.getMaxMillis();
+    }
+
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Stress test: ").append(config).append(System.lineSeparator());
+        sb.append(String.format("  %-14s %7s %9s %9s %9s %9s %11s %11s%n",
+            "Phase", "frames", "avg ms", "p95 ms", "p99 ms", "max ms", "render avg", "render max"));
+        for (Phase p : Phase.values()) {
+            int n = frameCounts[p.ordinal()];
+            long[] sorted = Arrays.copyOf(frameIntervals[p.ordinal()], n);
+            Arrays.sort(sorted);
+            double sum = 0;
+            for (long interval : sorted) {
+                sum += interval;
+            }
+            sb.append(String.format("  %-14s %7d %9.2f %9.2f %9.2f %9.2f %11.3f %11.3f%n",
+                p.label, n,
+                n > 0 ? sum / n / 1e6 : 0,
+                percentile(sorted, 0.95), percentile(sorted, 0.99),
+                n > 0 ? sorted[n - 1] / 1e6 : 0,
+                renderAvgMillis[p.ordinal()], renderMaxMillis[p.ordinal()]));
+        }
+        return sb.toString();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
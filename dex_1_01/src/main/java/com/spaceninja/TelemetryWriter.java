@@ -0,0 +1,315 @@
+package com.spaceninja;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes session telemetry as gzipped JSON lines to a size-capped, rotating log.
+ *
+ * The game fills preallocated records in a ring and never touches the disk; a background
+ * thread drains the ring in batches. If the ring is full the record is dropped and counted.
+ * Files are telemetry.log.gz (current), telemetry.1.log.gz (previous) and so on.
+ */
+public class TelemetryWriter {
+
+    public enum Type {
+        SESSION_START("session_start"),
+        FRAME_SUMMARY("frame_summary"),
+        SESSION_END("session_end");
+
+        private final String label;
+
+        Type(String label) {
+            this.label = label;
+        }
+    }
+
+    // One telemetry record. Filled by the game thread in place; fields unused by a type stay zero.
+    public static class Record {
+        Type type;
+        long wallMillis;
+        int session;
+        String reason = "";
+        long durationMillis;
+        int score;
+        String grade = "";
+        long frames;
+        double frameAvgMillis;
+        double frameMaxMillis;
+        double renderAvgMillis;
+        double tickAvgMillis;
+        long inputs;
+        long sticks;
+        long landings;
+
+        void clear() {
+            type = null;
+            wallMillis = 0;
+            session = 0;
+            reason = "";
+            durationMillis = 0;
+            score = 0;
+            grade = "";
+            frames = 0;
+            frameAvgMillis = 0;
+            frameMaxMillis = 0;
+            renderAvgMillis = 0;
+            tickAvgMillis = 0;
+            inputs = 0;
+            sticks = 0;
+            landings = 0;
+        }
+    }
+
+    private static final int CAPACITY = 256; // Power of two
+    private static final long IDLE_PARK_NANOS = 200_000_000L;
+    private static final String FILE_NAME = "telemetry";
+
+    private final Path directory;
+    private final long maxFileBytes;
+    private final int keepFiles;
+    private final boolean enabled;
+
+    // Single-producer (FX thread) / single-consumer (writer thread) ring of reusable records
+    private final Record[] records = new Record[CAPACITY];
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+    private long claimed = -1; // Producer thread only
+    private long dropped = 0;  // Producer thread only
+
+    // Writer thread state
+    private final StringBuilder line = new StringBuilder(512);
+    private CountingOutputStream fileBytes;
+    private Writer out;
+    private long written = 0;
+    private long rotations = 0;
+    private volatile boolean running;
+    private Thread writerThread;
+
+    private static class CountingOutputStream extends FilterOutputStream {
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+    public TelemetryWriter(Path directory, long maxFileBytes, int keepFiles) {
+        this.enabled = directory != null;
+        if (enabled && (maxFileBytes <= 0 || keepFiles < 1)) {
+            throw new IllegalArgumentException("Telemetry needs a positive file size and at least one file: "
+                + maxFileBytes + " bytes, " + keepFiles + " files");
+        }
+        this.directory = directory;
+        this.maxFileBytes = maxFileBytes;
+        this.keepFiles = keepFiles;
+        for (int i = 0; i < CAPACITY; i++) {
+            records[i] = new Record();
+        }
+    }
+
+    // Telemetry turned off: every call is a no-op
+    public static TelemetryWriter disabled() {
+        return new TelemetryWriter(null, 0, 1);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void start() throws IOException {
+        if (!enabled) return;
+        Files.createDirectories(directory);
+        // Never overwrite the log of a previous run
+        if (Files.exists(logFile(0))) {
+            shiftLogs();
+        }
+        running = true;
+        writerThread = new Thread(this::run, "telemetry-writer");
+        writerThread.setDaemon(true);
+        writerThread.setPriority(Thread.MIN_PRIORITY);
+        writerThread.start();
+    }
+
+    // Drains whatever is queued, then closes the log
+    public void shutdown() {
+        if (writerThread == null) return;
+        running = false;
+        LockSupport.unpark(writerThread);
+        try {
+            writerThread.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Producer side. claim() returns a cleared record to fill, or null if telemetry is off or
+    // the ring is full; publish() hands the claimed record to the writer.
+
+    public Record claim(Type type) {
+        if (!running) return null;
+        long t = tail.get();
+        if (t - head.get() >= CAPACITY) {
+            dropped++;
+            return null;
+        }
+        Record record = records[(int) (t & (CAPACITY - 1))];
+        record.clear();
+        record.type = type;
+        record.wallMillis = System.currentTimeMillis();
+        claimed = t;
+        return record;
+    }
+
+    public void publish() {
+        if (claimed < 0) return;
+        tail.lazySet(claimed + 1);
+        claimed = -1;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    private void run() {
+        try {
+            openLog();
+            while (running || head.get() != tail.get()) {
+                if (head.get() == tail.get()) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                // Write everything that is queued as one batch, then flush once
+                while (head.get() != tail.get()) {
+                    long h = head.get();
+                    format(records[(int) (h & (CAPACITY - 1))]);
+                    head.lazySet(h + 1);
+                    out.append(line);
+                    written++;
+                }
+                out.flush();
+                if (fileBytes.count >= maxFileBytes) {
+                    rotate();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Telemetry stopped: " + e.getMessage());
+            running = false;
+        } finally {
+            closeLog();
+        }
+    }
+
+    private void openLog() throws IOException {
+        fileBytes = new CountingOutputStream(Files.newOutputStream(logFile(0)));
+        try {
+            // Sync-flush so a crash loses at most the batch being written
+            out = new OutputStreamWriter(new GZIPOutputStream(fileBytes, 8192, true), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            fileBytes.close();
+            throw e;
+        }
+    }
+
+    // Finishes the gzip stream and closes the file, whether or not writing succeeded
+    private void closeLog() {
+        if (out == null) return;
+        try {
+            out.close();
+        } catch (IOException e) {
+            System.err.println("Telemetry log not closed cleanly: " + e.getMessage());
+        }
+        out = null;
+    }
+
+    private void rotate() throws IOException {
+        Writer current = out;
+        out = null;
+        current.close();
+        shiftLogs();
+        rotations++;
+        openLog();
+    }
+
+    private void shiftLogs() throws IOException {
+        Files.deleteIfExists(logFile(keepFiles - 1));
+        for (int i = keepFiles - 2; i >= 0; i--) {
+            if (Files.exists(logFile(i))) {
+                Files.move(logFile(i), logFile(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    private Path logFile(int index) {
+        return directory.resolve(index == 0 ? FILE_NAME + ".log.gz" : FILE_NAME + "." + index + ".log.gz");
+    }
+
+    private void format(Record r) {
+        line.setLength(0);
+        line.append("{\"type\":\"").append(r.type.label).append('"')
+            .append(",\"time\":").append(r.wallMillis)
+            .append(",\"session\":").append(r.session);
+        switch (r.type) {
+            case SESSION_START:
+                break;
+            case FRAME_SUMMARY:
+                line.append(",\"durationMs\":").append(r.durationMillis);
+                appendFrameFields(r);
+                break;
+            case SESSION_END:
+                line.append(",\"reason\":\"").append(r.reason).append('"')
+                    .append(",\"durationMs\":").append(r.durationMillis)
+                    .append(",\"score\":").append(r.score)
+                    .append(",\"grade\":\"").append(r.grade).append('"')
+                    .append(",\"sticks\":").append(r.sticks)
+                    .append(",\"landings\":").append(r.landings);
+                appendFrameFields(r);
+                break;
+        }
+        line.append("}\n");
+    }
+
+    private void appendFrameFields(Record r) {
+        line.append(",\"frames\":").append(r.frames)
+            .append(",\"frameAvgMs\":").append(round(r.frameAvgMillis))
+            .append(",\"frameMaxMs\":").append(round(r.frameMaxMillis))
+            .append(",\"renderAvgMs\":").append(round(r.renderAvgMillis))
+            .append(",\"tickAvgMs\":").append(round(r.tickAvgMillis))
+            .append(",\"inputs\":").append(r.inputs);
+        if (r.durationMillis > 0) {
+            line.append(",\"inputsPerMin\":").append(round(r.inputs * 60_000.0 / r.durationMillis));
+        }
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 1000) / 1000.0;
+    }
+
+    public String report() {
+        if (!enabled) return "Telemetry: disabled";
+        return String.format("Telemetry: %d records written, %d dropped, %d rotations -> %s",
+            written, dropped, rotations, directory.toAbsolutePath());
+    }
+}
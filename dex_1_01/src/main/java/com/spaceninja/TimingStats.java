@@ -0,0 +1,45 @@
+package com.spaceninja;
+
+/**
+ * Running count, average and worst case of a repeated timing, in nanoseconds.
+ * Written by a single thread; other threads should only read it once that thread is idle.
+ */
+public class TimingStats {
+
+    private final String label;
+    private long count;
+    private long totalNanos;
+    private long maxNanos;
+
+    public TimingStats(String label) {
+        this.label = label;
+    }
+
+    public void record(long nanos) {
+        count++;
+        totalNanos += nanos;
+        if (nanos > maxNanos) maxNanos = nanos;
+    }
+
+    public void reset() {
+        count = 0;
+        totalNanos = 0;
+        maxNanos = 0;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getAverageMillis() {
+        return count == 0 ? 0 : totalNanos / (double) count / 1_000_000;
+    }
+
+    public double getMaxMillis() {
+        return maxNanos / 1_000_000.0;
+    }
+
+    public String summary() {
+        return String.format("%s: %d samples, avg %.3f ms, max %.3f ms", label, count, getAverageMillis(), getMaxMillis());
+    }
+}
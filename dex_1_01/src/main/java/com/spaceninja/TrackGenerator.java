@@ -0,0 +1,141 @@
+package com.spaceninja;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lays out upcoming sticks ahead of time on a worker thread. Pieces go into a bounded
+ * single-producer / single-consumer ring; the simulation only takes finished pieces off
+ * the front, so generation cost never lands inside a game tick.
+ */
+public class TrackGenerator {
+
+    private static final int CAPACITY = 64; // Power of two
+    private static final int REFILL_BELOW = CAPACITY / 2;
+    private static final long IDLE_PARK_NANOS = 50_000_000L;
+
+    // Used when the ring is empty, which means the worker has fallen badly behind
+    private static final double DEFAULT_GAP = 90;
+    private static final double DEFAULT_HEIGHT = 252;
+
+    // Upcoming pieces: gap before the stick, visible height and particle effect type
+    private final double[] gaps = new double[CAPACITY];
+    private final double[] heights = new double[CAPACITY];
+    private final int[] effects = new int[CAPACITY];
+    private final AtomicLong head = new AtomicLong(); // Next piece to consume
+    private final AtomicLong tail = new AtomicLong(); // Next slot to fill
+    private final AtomicLong underruns = new AtomicLong(); // Written by the consumer, read by reports
+
+    // Consumer state: the effect handed out for the front piece and the two before it
+    private int frontEffect = 0;
+    private int lastHandedOut = -1;
+    private int effectBeforeLast = -1;
+
+    // Worker state
+    private final Random random = new Random();
+    private double wavePhase = 0;
+    private int lastEffect = -1;
+    private int effectRepeats = 0;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public void start() {
+        running = true;
+        worker = new Thread(this::run, "track-generator");
+        worker.setDaemon(true);
+        worker.setPriority(Thread.MIN_PRIORITY);
+        worker.start();
+    }
+
+    public void shutdown() {
+        running = false;
+        if (worker != null) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            long t = tail.get();
+            if (t - head.get() >= CAPACITY) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            generate((int) (t & (CAPACITY - 1)));
+            tail.lazySet(t + 1);
+        }
+    }
+
+    private void generate(int slot) {
+        // Heights follow a slow rolling swell with a little noise on top, like the waves behind
+        wavePhase += 0.35 + random.nextDouble() * 0.2;
+        heights[slot] = DEFAULT_HEIGHT + Math.sin(wavePhase) * 18 + random.nextGaussian() * 4;
+
+        // Keep the horizontal rhythm fixed: the ninja lands once a second and the scoring
+        // depends on where the sticks are at that moment
+        gaps[slot] = DEFAULT_GAP;
+
+        // Particle effects, never more than two of the same kind in a row
+        int effect = random.nextInt(3); // 0: bubbles, 1: triangles, 2: blocks
+        if (effect == lastEffect && ++effectRepeats >= 2) {
+            effect = (effect + 1 + random.nextInt(2)) % 3;
+            effectRepeats = 0;
+        } else if (effect != lastEffect) {
+            effectRepeats = 0;
+        }
+        lastEffect = effect;
+        effects[slot] = effect;
+    }
+
+    // Consumer side, simulation thread only. Read the front piece with the getters, then advance().
+
+    public boolean hasNext() {
+        return head.get() != tail.get();
+    }
+
+    public double nextGap() {
+        return hasNext() ? gaps[frontSlot()] : DEFAULT_GAP;
+    }
+
+    public double nextHeight() {
+        return hasNext() ? heights[frontSlot()] : DEFAULT_HEIGHT;
+    }
+
+    // Never hands out the same effect three times in a row, including across underruns where
+    // the fallback has to join up with what came out of the ring before and after
+    public int nextEffect() {
+        int effect = hasNext() ? effects[frontSlot()] : -1;
+        if (effect < 0 || (effect == lastHandedOut && effect == effectBeforeLast)) {
+            effect = 0;
+            while (effect == lastHandedOut || effect == effectBeforeLast) {
+                effect++;
+            }
+        }
+        frontEffect = effect;
+        return effect;
+    }
+
+    public void advance() {
+        effectBeforeLast = lastHandedOut;
+        lastHandedOut = frontEffect;
+        long h = head.get();
+        if (h == tail.get()) {
+            underruns.lazySet(underruns.get() + 1);
+            return;
+        }
+        head.lazySet(h + 1);
+        if (tail.get() - (h + 1) < REFILL_BELOW) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private int frontSlot() {
+        return (int) (head.get() & (CAPACITY - 1));
+    }
+
+    public long getUnderruns() {
+        return underruns.get();
+    }
+}
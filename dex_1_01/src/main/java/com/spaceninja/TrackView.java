@@ -0,0 +1,110 @@
+package com.spaceninja;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.scene.Group;
+
+/**
+ * The stick views of one lane, kept in the same order as the simulation's sticks and
+ * matched to them by id. The normal game has one; the stress mode adds more lanes that
+ * all show the same simulation.
+ *
+ * Views that leave the screen are parked in a pool per particle effect and reused for new
+ * sticks, so neither scrolling nor a restart builds nodes or timelines once the pools are warm.
+ */
+public class TrackView {
+
+    private final Group container = new Group();
+    private final List<Stick> sticks = new ArrayList<>();
+    private final List<List<Stick>> pools = new ArrayList<>(); // Parked views, by effect type
+    private final GameClock clock;
+    private final ViewSync viewSync;
+    private final int particlesPerStick;
+
+    public TrackView(GameClock clock, ViewSync viewSync, int particlesPerStick) {
+        this.clock = clock;
+        this.viewSync = viewSync;
+        this.particlesPerStick = particlesPerStick;
+        for (int i = 0; i < 3; i++) { // 0: bubbles, 1: triangles, 2: blocks
+            pools.add(new ArrayList<>());
+        }
+    }
+
+    public Group getNode() {
+        return container;
+    }
+
+    // ghost may be null when there is no ghost run to show
+    public void sync(RenderSnapshot snapshot, double alpha, GhostPlayer ghost) {
+        // Sticks leave from the front: drop views the simulation no longer has
+        long firstId = snapshot.stickCount > 0 ? snapshot.stickIds[0] : Long.MAX_VALUE;
+        while (!sticks.isEmpty() && sticks.get(0).getId() < firstId) {
+            park(sticks.remove(0));
+        }
+
+        // ...and arrive at the back: reuse or create views for new ones
+        for (int i = 0; i < snapshot.stickCount; i++) {
+            Stick stick;
+            if (i < sticks.size()) {
+                stick = sticks.get(i);
+            } else {
+                stick = obtain(snapshot.stickIds[i], snapshot.stickX[i], snapshot.stickY[i], snapshot.stickEffects[i]);
+                sticks.add(stick);
+            }
+            stick.setX(lerp(snapshot.prevStickX[i], snapshot.stickX[i], alpha));
+            stick.showColor(snapshot.stickColors[i], snapshot.stickSwitches[i]);
+            if (ghost != null) {
+                stick.showGhostColor(ghost.colorOf(snapshot.stickIds[i] - snapshot.firstStickId));
+            }
+        }
+    }
+
+    // Parks every view; the next snapshot picks them up again
+    public void clear() {
+        for (int i = sticks.size() - 1; i >= 0; i--) {
+            park(sticks.remove(i));
+        }
+    }
+
+    private Stick obtain(long id, double x, double y, int effectType) {
+        List<Stick> pool = pools.get(effectType);
+        if (!pool.isEmpty()) {
+            Stick stick = pool.remove(pool.size() - 1);
+            stick.reuse(id, x, y);
+            return stick;
+        }
+        Stick stick = new Stick(id, x, y, effectType, particlesPerStick, clock, viewSync);
+        container.getChildren().add(stick.getNode());
+        return stick;
+    }
+
+    private void park(Stick stick) {
+        // The node stays in the container, hidden, so parking doesn't touch the scene graph
+        stick.park();
+        pools.get(stick.getEffectType()).add(stick);
+    }
+
+    // Id and drawn position of the front stick, -1 and 0 if there is none. What is on screen,
+    // after any skipped writes, rather than what the snapshot asked for.
+    public long getFrontId() {
+        return sticks.isEmpty() ? -1 : sticks.get(0).getId();
+    }
+
+    public double getFrontShownX() {
+        return sticks.isEmpty() ? 0 : sticks.get(0).getNode().getLayoutX();
+    }
+
+    // Views built so far, on screen or parked
+    public int getViewCount() {
+        int count = sticks.size();
+        for (int i = 0; i < pools.size(); i++) {
+            count += pools.get(i).size();
+        }
+        return count;
+    }
+
+    private static double lerp(double from, double to, double alpha) {
+        return from + (to - from) * alpha;
+    }
+}
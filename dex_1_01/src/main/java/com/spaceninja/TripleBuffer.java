@@ -0,0 +1,47 @@
+package com.spaceninja;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free single-writer / single-reader triple buffer. The writer always has a private
+ * back buffer to fill, the reader always has a private front buffer to read, and the two
+ * exchange through a shared middle slot, so neither side ever waits for the other.
+ *
+ * The writer gets an arbitrary older buffer back after publish(), so it must write every
+ * field it relies on each time.
+ */
+public class TripleBuffer<T> {
+
+    private static final int INDEX_MASK = 0x3;
+    private static final int FRESH = 0x4; // Set when the middle slot holds an unread publish
+
+    private final Object[] buffers = new Object[3];
+    private final AtomicInteger middle = new AtomicInteger(2);
+    private int back = 0;  // Writer thread only
+    private int front = 1; // Reader thread only
+
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.get();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) buffers[back];
+    }
+
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    // Returns the most recently published buffer, or the previous one if nothing new arrived
+    @SuppressWarnings("unchecked")
+    public T acquireLatest() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return (T) buffers[front];
+    }
+}
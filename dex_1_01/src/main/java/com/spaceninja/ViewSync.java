@@ -0,0 +1,126 @@
+package com.spaceninja;
+
+import javafx.geometry.Rectangle2D;
+import javafx.scene.Node;
+import javafx.scene.effect.Effect;
+import javafx.scene.image.ImageView;
+import javafx.scene.paint.Paint;
+import javafx.scene.shape.Shape;
+
+/**
+ * Pushes per-frame view state into the scene graph, writing a property only when its value
+ * actually changes. Every property write invalidates bounds and marks the node dirty for the
+ * next pulse; the counters show how many writes each frame really needed. They cover every
+ * write the frame loop makes to sticks, ninjas, the HUD and screens, but not the properties
+ * driven by the clock's timelines.
+ *
+ * Values are written as given, never rounded, so interpolated motion keeps its sub-pixel
+ * steps. A number counts as unchanged when it is within a small epsilon of the node's current
+ * value, which is the last value written; a drift below the epsilon is caught up as soon as it
+ * adds up to more. FX thread only.
+ */
+public class ViewSync {
+
+    // Well under a device pixel even at 4x scaling
+    private static final double POSITION_EPSILON = 1.0 / 64;
+    private static final double SCALE_EPSILON = 1.0 / 1000;
+    private static final double OPACITY_EPSILON = 1.0 / 256;
+
+    private long frames;
+    private long frameWrites;
+    private long totalWrites;
+    private long totalSkips;
+    private long maxFrameWrites;
+
+    public void endFrame() {
+        frames++;
+        totalWrites += frameWrites;
+        if (frameWrites > maxFrameWrites) maxFrameWrites = frameWrites;
+        frameWrites = 0;
+    }
+
+    public void layoutX(Node node, double x) {
+        if (changed(node.getLayoutX(), x, POSITION_EPSILON)) {
+            node.setLayoutX(x);
+        }
+    }
+
+    public void layoutY(Node node, double y) {
+        if (changed(node.getLayoutY(), y, POSITION_EPSILON)) {
+            node.setLayoutY(y);
+        }
+    }
+
+    public void scaleX(Node node, double scale) {
+        if (changed(node.getScaleX(), scale, SCALE_EPSILON)) {
+            node.setScaleX(scale);
+        }
+    }
+
+    public void scaleY(Node node, double scale) {
+        if (changed(node.getScaleY(), scale, SCALE_EPSILON)) {
+            node.setScaleY(scale);
+        }
+    }
+
+    public void opacity(Node node, double opacity) {
+        if (changed(node.getOpacity(), opacity, OPACITY_EPSILON)) {
+            node.setOpacity(opacity);
+        }
+    }
+
+    public void visible(Node node, boolean visible) {
+        if (changed(node.isVisible() != visible)) {
+            node.setVisible(visible);
+        }
+    }
+
+    public void fill(Shape shape, Paint fill) {
+        if (changed(shape.getFill() != fill)) {
+            shape.setFill(fill);
+        }
+    }
+
+    public void stroke(Shape shape, Paint stroke) {
+        if (changed(shape.getStroke() != stroke)) {
+            shape.setStroke(stroke);
+        }
+    }
+
+    public void effect(Node node, Effect effect) {
+        if (changed(node.getEffect() != effect)) {
+            node.setEffect(effect);
+        }
+    }
+
+    public void viewport(ImageView view, Rectangle2D viewport) {
+        if (changed(view.getViewport() != viewport)) {
+            view.setViewport(viewport);
+        }
+    }
+
+    public void fitWidth(ImageView view, double width) {
+        if (changed(view.getFitWidth(), width, POSITION_EPSILON)) {
+            view.setFitWidth(width);
+        }
+    }
+
+    private boolean changed(double current, double value, double epsilon) {
+        return changed(Math.abs(current - value) >= epsilon);
+    }
+
+    private boolean changed(boolean differs) {
+        if (differs) {
+            frameWrites++;
+        } else {
+            totalSkips++;
+        }
+        return differs;
+    }
+
+    public String summary() {
+        return String.format("View writes (frame loop, timelines not counted): %d frames, "
+            + "avg %.1f writes/frame, max %d, %d no-op writes skipped",
+            frames, frames == 0 ? 0 : totalWrites / (double) frames, maxFrameWrites, totalSkips);
+    }
+}
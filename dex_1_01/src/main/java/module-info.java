@@ -1,7 +1,9 @@
 module spaceninja {
     requires javafx.controls;
     requires javafx.fxml;
+    requires javafx.media;
     requires java.desktop;
+    requires jdk.management;
     
     exports com.spaceninja;
 }